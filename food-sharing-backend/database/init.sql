@@ -16,6 +16,11 @@ USE `food_sharing`;
 -- ============================================
 SET FOREIGN_KEY_CHECKS = 0;
 
+DROP TABLE IF EXISTS `rate_limit_counters`;
+DROP TABLE IF EXISTS `user_timelines`;
+DROP TABLE IF EXISTS `post_similarities`;
+DROP TABLE IF EXISTS `user_interest_profiles`;
+DROP TABLE IF EXISTS `post_hot_scores`;
 DROP TABLE IF EXISTS `system_logs`;
 DROP TABLE IF EXISTS `system_configs`;
 DROP TABLE IF EXISTS `merchants`;
@@ -44,6 +49,7 @@ CREATE TABLE IF NOT EXISTS `users` (
   `points` int NOT NULL DEFAULT '0' COMMENT '积分',
   `level` int NOT NULL DEFAULT '1' COMMENT '用户等级',
   `enabled` tinyint(1) NOT NULL DEFAULT '1' COMMENT '是否启用:0-禁用,1-启用',
+  `token_version` int NOT NULL DEFAULT '0' COMMENT '令牌版本（禁用、改角色时递增）',
   `created_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_users_username` (`username`),
@@ -88,6 +94,9 @@ CREATE TABLE IF NOT EXISTS `posts` (
   `lng` double DEFAULT NULL COMMENT '经度',
   `address` varchar(255) DEFAULT NULL COMMENT '地理位置',
   `view_count` bigint NOT NULL DEFAULT '0' COMMENT '浏览数',
+  `like_count` bigint NOT NULL DEFAULT '0' COMMENT '点赞数',
+  `comment_count` bigint NOT NULL DEFAULT '0' COMMENT '评论数',
+  `favorite_count` bigint NOT NULL DEFAULT '0' COMMENT '收藏数',
   `status` varchar(20) NOT NULL DEFAULT 'PENDING' COMMENT '状态:PENDING-待审核,APPROVED-已通过,REJECTED-已拒绝',
   `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
@@ -120,6 +129,9 @@ CREATE TABLE IF NOT EXISTS `comments` (
   `post_id` bigint NOT NULL COMMENT '美食内容ID',
   `content` varchar(1000) NOT NULL COMMENT '评论内容',
   `parent_id` bigint DEFAULT NULL COMMENT '父评论ID',
+  `root_id` bigint DEFAULT NULL COMMENT '楼层根评论ID',
+  `path` varchar(760) DEFAULT NULL COMMENT '物化路径（各级ID的8位36进制编码）',
+  `depth` int DEFAULT NULL COMMENT '层级，顶层为0',
   `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
   KEY `idx_user_id` (`user_id`),
@@ -242,15 +254,92 @@ CREATE TABLE IF NOT EXISTS `system_logs` (
   KEY `idx_created_at` (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='系统日志表';
 
+-- ============================================
+-- 13. 内容热度表 (post_hot_scores)
+-- ============================================
+CREATE TABLE IF NOT EXISTS `post_hot_scores` (
+  `post_id` bigint NOT NULL COMMENT '内容ID',
+  `view_count` bigint NOT NULL DEFAULT '0' COMMENT '浏览数',
+  `like_count` bigint NOT NULL DEFAULT '0' COMMENT '点赞数',
+  `comment_count` bigint NOT NULL DEFAULT '0' COMMENT '评论数',
+  `favorite_count` bigint NOT NULL DEFAULT '0' COMMENT '收藏数',
+  `score` double NOT NULL DEFAULT '0' COMMENT '热度分数:浏览*1+点赞*10+评论*5+收藏*8',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`post_id`),
+  KEY `idx_post_hot_scores_score` (`score`),
+  CONSTRAINT `fk_post_hot_scores_post_id` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='内容热度表';
+
+-- ============================================
+-- 14. 用户兴趣画像表 (user_interest_profiles)
+-- ============================================
+CREATE TABLE IF NOT EXISTS `user_interest_profiles` (
+  `user_id` bigint NOT NULL COMMENT '用户ID',
+  `weights` longtext NOT NULL COMMENT '分类/标签权重:c{分类ID}:{权重},t{标签ID}:{权重}',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '权重衰减基准时间',
+  PRIMARY KEY (`user_id`),
+  CONSTRAINT `fk_user_interest_profiles_user_id` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户兴趣画像表';
+
+-- ============================================
+-- 15. 相似内容表 (post_similarities)
+-- ============================================
+CREATE TABLE IF NOT EXISTS `post_similarities` (
+  `post_id` bigint NOT NULL COMMENT '内容ID',
+  `similar_post_id` bigint NOT NULL COMMENT '相似内容ID',
+  `score` double NOT NULL DEFAULT '0' COMMENT '相似度',
+  `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '计算时间',
+  PRIMARY KEY (`post_id`, `similar_post_id`),
+  CONSTRAINT `fk_post_similarities_post_id` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_post_similarities_similar_post_id` FOREIGN KEY (`similar_post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='相似内容表';
+
+-- ============================================
+-- 16. 用户时间线表 (user_timelines)
+-- ============================================
+CREATE TABLE IF NOT EXISTS `user_timelines` (
+  `user_id` bigint NOT NULL COMMENT '关注者ID',
+  `post_id` bigint NOT NULL COMMENT '内容ID',
+  `author_id` bigint NOT NULL COMMENT '作者ID',
+  `created_at` datetime NOT NULL COMMENT '内容发布时间',
+  PRIMARY KEY (`user_id`, `post_id`),
+  KEY `idx_user_timelines_user_time` (`user_id`, `created_at`, `post_id`),
+  KEY `idx_user_timelines_post_id` (`post_id`),
+  CONSTRAINT `fk_user_timelines_user_id` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE,
+  CONSTRAINT `fk_user_timelines_post_id` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户时间线表';
+
+-- ============================================
+-- 17. 限流计数表 (rate_limit_counters)
+-- ============================================
+CREATE TABLE IF NOT EXISTS `rate_limit_counters` (
+  `bucket_key` varchar(191) NOT NULL COMMENT '规则ID:用户/IP',
+  `permits` bigint NOT NULL COMMENT '集群累计放行数',
+  `tat` bigint NOT NULL DEFAULT 0 COMMENT '集群理论到达时间（微秒）',
+  `updated_at` datetime NOT NULL COMMENT '最后更新时间',
+  PRIMARY KEY (`bucket_key`),
+  KEY `idx_rate_limit_counters_updated` (`updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='限流计数表';
+
 -- ============================================
 -- 索引优化
 -- ============================================
 -- 帖子查询优化
 ALTER TABLE `posts` ADD INDEX `idx_posts_author_status_time` (`author_id`, `status`, `created_at`);
 ALTER TABLE `posts` ADD INDEX `idx_posts_category_status` (`category_id`, `status`);
+-- 列表游标分页：按 (排序列, id) 定位
+ALTER TABLE `posts` ADD INDEX `idx_posts_status_time` (`status`, `created_at`, `id`);
+ALTER TABLE `posts` ADD INDEX `idx_posts_status_views` (`status`, `view_count`, `id`);
 
 -- 评论查询优化
 ALTER TABLE `comments` ADD INDEX `idx_comments_post_time` (`post_id`, `created_at`);
+ALTER TABLE `comments` ADD INDEX `idx_comments_user_post` (`user_id`, `post_id`);
+ALTER TABLE `comments` ADD INDEX `idx_comments_parent_time` (`parent_id`, `created_at`, `id`);
+ALTER TABLE `comments` ADD INDEX `idx_comments_root_path` (`root_id`, `path`);
+
+-- 趋势内容预热（按时间范围读取近期互动）
+ALTER TABLE `likes` ADD INDEX `idx_likes_created_at` (`created_at`);
+ALTER TABLE `favorites` ADD INDEX `idx_favorites_created_at` (`created_at`);
 
 -- 关注关系查询优化
 ALTER TABLE `follows` ADD INDEX `idx_follows_follower_time` (`follower_id`, `created_at`);
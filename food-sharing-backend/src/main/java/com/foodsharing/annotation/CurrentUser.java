@@ -0,0 +1,15 @@
+package com.foodsharing.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前登录用户，未登录时为 null：参数类型为 Long 时注入用户ID（不查询数据库），
+ * 为 com.foodsharing.entity.User 时注入用户实体
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,85 @@
+package com.foodsharing.aspect;
+
+import com.foodsharing.entity.SystemConfig;
+import com.foodsharing.repository.SystemConfigRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 系统日志采样策略：规则来自系统配置 log.sampling-rules（管理后台可随时修改），
+ * 未配置时使用 app.log-policy.default-rules。配置变更后 version 递增，
+ * LoggingAspect 据此刷新各方法缓存的采样比例；没有规则匹配时保留
+ */
+@Component
+public class LogPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPolicy.class);
+
+    public static final String CONFIG_KEY = "log.sampling-rules";
+
+    private final SystemConfigRepository systemConfigRepository;
+    private final String defaultRules;
+
+    private volatile LogSamplingRule[] rules;
+    private volatile int version;
+    // 当前生效的配置原文，未变化时不重新解析
+    private String source;
+
+    public LogPolicy(SystemConfigRepository systemConfigRepository,
+                     @Value("${app.log-policy.default-rules:ERROR *.* 1}") String defaultRules) {
+        this.systemConfigRepository = systemConfigRepository;
+        this.defaultRules = defaultRules;
+        apply(defaultRules);
+    }
+
+    /**
+     * 该级别、模块、操作的日志保留比例
+     */
+    public double sampleRate(String level, String module, String action) {
+        for (LogSamplingRule rule : rules) {
+            if (rule.matches(level, module, action)) {
+                return rule.getRate();
+            }
+        }
+        return 1.0;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * 重新读取系统配置，其他实例修改的配置也由定时刷新带过来
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.log-policy.refresh-ms:30000}")
+    public synchronized void reload() {
+        String configured = systemConfigRepository.findByConfigKey(CONFIG_KEY)
+                .map(SystemConfig::getConfigValue)
+                .orElse(defaultRules);
+        if (Objects.equals(configured, source)) {
+            return;
+        }
+        try {
+            apply(configured);
+        } catch (IllegalArgumentException e) {
+            // 配置错误时保留当前策略
+            logger.warn("Invalid {} config, keeping current log sampling rules: {}", CONFIG_KEY, e.getMessage());
+        }
+    }
+
+    private synchronized void apply(String spec) {
+        List<LogSamplingRule> parsed = LogSamplingRule.parseRules(spec);
+        rules = parsed.toArray(new LogSamplingRule[0]);
+        source = spec;
+        version++;
+    }
+}
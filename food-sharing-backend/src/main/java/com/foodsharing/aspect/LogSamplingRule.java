@@ -0,0 +1,76 @@
+package com.foodsharing.aspect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 系统日志采样规则：日志级别（为空表示任意）+ 模块.操作（* 为通配），匹配的日志按 rate 比例保留。
+ * 配置格式为 "[级别] 模块.操作 比例"，多条规则以分号分隔，按顺序取第一条匹配的规则
+ */
+public class LogSamplingRule {
+
+    private static final String ANY = "*";
+
+    private final String level;
+    private final String module;
+    private final String action;
+    private final double rate;
+
+    public LogSamplingRule(String level, String module, String action, double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException("sample rate must be between 0 and 1: " + rate);
+        }
+        this.level = level;
+        this.module = module;
+        this.action = action;
+        this.rate = rate;
+    }
+
+    /**
+     * 解析分号分隔的规则列表
+     *
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public static List<LogSamplingRule> parseRules(String spec) {
+        List<LogSamplingRule> rules = new ArrayList<>();
+        if (spec == null) {
+            return rules;
+        }
+        for (String part : spec.split(";")) {
+            String[] tokens = part.trim().split("\\s+");
+            if (tokens.length == 1 && tokens[0].isEmpty()) {
+                continue;
+            }
+            if (tokens.length < 2 || tokens.length > 3) {
+                throw new IllegalArgumentException("invalid log sampling rule: " + part.trim());
+            }
+            int i = 0;
+            String level = tokens.length == 3 ? tokens[i++].toUpperCase(Locale.ROOT) : null;
+            String[] target = tokens[i++].toUpperCase(Locale.ROOT).split("\\.");
+            if (target.length != 2 || target[0].isEmpty() || target[1].isEmpty()) {
+                throw new IllegalArgumentException("expected MODULE.ACTION in log sampling rule: " + part.trim());
+            }
+            try {
+                rules.add(new LogSamplingRule(level, target[0], target[1], Double.parseDouble(tokens[i])));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid rate in log sampling rule: " + part.trim(), e);
+            }
+        }
+        return rules;
+    }
+
+    public boolean matches(String level, String module, String action) {
+        return (this.level == null || this.level.equals(level))
+                && (ANY.equals(this.module) || this.module.equals(module))
+                && (ANY.equals(this.action) || this.action.equals(action));
+    }
+
+    public String getLevel() { return level; }
+
+    public String getModule() { return module; }
+
+    public String getAction() { return action; }
+
+    public double getRate() { return rate; }
+}
@@ -5,15 +5,27 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * 日志切面 - 自动记录Controller方法的调用
+ * 写入系统日志表前按 LogPolicy 的规则采样，方法名、模块、操作和日志文本按方法缓存，
+ * 未被采样保留的调用不拼接日志文本
  */
 @Aspect
 @Component
@@ -24,6 +36,11 @@ public class LoggingAspect {
     @Autowired(required = false)
     private SystemLogService systemLogService;
 
+    @Autowired(required = false)
+    private LogPolicy logPolicy;
+
+    private final Map<Method, MethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
     /**
      * 定义切点：所有Controller的方法
      */
@@ -35,26 +52,26 @@ public class LoggingAspect {
      */
     @Before("controllerMethods()")
     public void logBefore(JoinPoint joinPoint) {
-        String methodName = joinPoint.getSignature().toShortString();
-        logger.debug("Entering method: {}", methodName);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Entering method: {}", describe(joinPoint).name);
+        }
     }
 
     /**
-     * 方法执行后记录（成功）
+     * 方法执行后记录（成功），按采样策略决定是否写入系统日志
      */
     @AfterReturning(pointcut = "controllerMethods()", returning = "result")
     public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        String methodName = joinPoint.getSignature().toShortString();
-        String module = extractModule(joinPoint);
-        String action = extractAction(joinPoint);
-        
-        logger.debug("Method {} completed successfully", methodName);
-        
+        MethodDescriptor descriptor = describe(joinPoint);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Method {} completed successfully", descriptor.name);
+        }
+
         // 记录到系统日志表（如果SystemLogService可用）
-        if (systemLogService != null) {
+        if (systemLogService != null && keep(descriptor.rates().info)) {
             try {
                 HttpServletRequest request = getCurrentRequest();
-                systemLogService.logInfo(module, action, "操作成功: " + methodName, request);
+                systemLogService.logInfo(descriptor.module, descriptor.action, descriptor.successMessage, request);
             } catch (Exception e) {
                 logger.warn("Failed to log to SystemLogService", e);
             }
@@ -66,18 +83,16 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "controllerMethods()", throwing = "exception")
     public void logAfterThrowing(JoinPoint joinPoint, Exception exception) {
-        String methodName = joinPoint.getSignature().toShortString();
-        String module = extractModule(joinPoint);
-        String action = extractAction(joinPoint);
-        
-        logger.error("Method {} threw exception: {}", methodName, exception.getMessage(), exception);
-        
+        MethodDescriptor descriptor = describe(joinPoint);
+
+        logger.error("Method {} threw exception: {}", descriptor.name, exception.getMessage(), exception);
+
         // 记录错误到系统日志表
-        if (systemLogService != null) {
+        if (systemLogService != null && keep(descriptor.rates().error)) {
             try {
                 HttpServletRequest request = getCurrentRequest();
-                systemLogService.logError(module, action, 
-                    "操作失败: " + methodName + " - " + exception.getMessage(), request);
+                systemLogService.logError(descriptor.module, descriptor.action,
+                    "操作失败: " + descriptor.name + " - " + exception.getMessage(), request);
             } catch (Exception e) {
                 logger.warn("Failed to log error to SystemLogService", e);
             }
@@ -93,22 +108,41 @@ public class LoggingAspect {
         try {
             Object result = joinPoint.proceed();
             long executionTime = System.currentTimeMillis() - startTime;
-            
-            String methodName = joinPoint.getSignature().toShortString();
+
             if (executionTime > 1000) { // 超过1秒的方法记录警告
-                logger.warn("Method {} took {} ms", methodName, executionTime);
-            } else {
-                logger.debug("Method {} took {} ms", methodName, executionTime);
+                logger.warn("Method {} took {} ms", describe(joinPoint).name, executionTime);
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Method {} took {} ms", describe(joinPoint).name, executionTime);
             }
-            
+
             return result;
         } catch (Throwable e) {
             long executionTime = System.currentTimeMillis() - startTime;
-            logger.error("Method {} failed after {} ms", joinPoint.getSignature().toShortString(), executionTime);
+            logger.error("Method {} failed after {} ms", describe(joinPoint).name, executionTime);
             throw e;
         }
     }
 
+    /**
+     * 按比例采样，比例为 0 或 1 时不取随机数
+     */
+    private static boolean keep(double rate) {
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * 取方法的缓存描述，只在方法第一次被调用时计算模块、操作和日志文本
+     */
+    private MethodDescriptor describe(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null) {
+            descriptor = descriptors.computeIfAbsent(method, m -> new MethodDescriptor(
+                    joinPoint.getSignature().toShortString(), extractModule(joinPoint), extractAction(joinPoint)));
+        }
+        return descriptor;
+    }
+
     /**
      * 提取模块名称
      */
@@ -132,7 +166,8 @@ public class LoggingAspect {
      * 提取操作名称
      */
     private String extractAction(JoinPoint joinPoint) {
-        String methodName = joinPoint.getSignature().getName();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String methodName = method.getName();
         // 根据方法名推断操作类型
         if (methodName.startsWith("create") || methodName.startsWith("register")) return "CREATE";
         if (methodName.startsWith("update") || methodName.startsWith("modify")) return "UPDATE";
@@ -140,9 +175,64 @@ public class LoggingAspect {
         if (methodName.startsWith("get") || methodName.startsWith("list") || methodName.startsWith("find")) return "QUERY";
         if (methodName.startsWith("login")) return "LOGIN";
         if (methodName.startsWith("logout")) return "LOGOUT";
+        // 方法名无法判断时按请求方法：GET 接口（如详情、信息流、搜索）都是查询
+        if (isGetMapping(method)) return "QUERY";
         return "OTHER";
     }
 
+    private static boolean isGetMapping(Method method) {
+        if (method.isAnnotationPresent(GetMapping.class)) {
+            return true;
+        }
+        RequestMapping mapping = method.getAnnotation(RequestMapping.class);
+        return mapping != null && Arrays.equals(mapping.method(), new RequestMethod[]{RequestMethod.GET});
+    }
+
+    /**
+     * 每个 Controller 方法的日志描述；采样比例按策略版本缓存，策略变更后第一次调用时重新计算
+     */
+    private final class MethodDescriptor {
+        final String name;
+        final String module;
+        final String action;
+        final String successMessage;
+        private volatile SampleRates rates = new SampleRates(-1, 1.0, 1.0);
+
+        MethodDescriptor(String name, String module, String action) {
+            this.name = name;
+            this.module = module;
+            this.action = action;
+            this.successMessage = "操作成功: " + name;
+        }
+
+        SampleRates rates() {
+            SampleRates current = rates;
+            if (logPolicy == null) {
+                return current;
+            }
+            int version = logPolicy.getVersion();
+            if (current.version != version) {
+                current = new SampleRates(version,
+                        logPolicy.sampleRate("INFO", module, action),
+                        logPolicy.sampleRate("ERROR", module, action));
+                rates = current;
+            }
+            return current;
+        }
+    }
+
+    private static final class SampleRates {
+        final int version;
+        final double info;
+        final double error;
+
+        SampleRates(int version, double info, double error) {
+            this.version = version;
+            this.info = info;
+            this.error = error;
+        }
+    }
+
     /**
      * 获取当前HTTP请求
      */
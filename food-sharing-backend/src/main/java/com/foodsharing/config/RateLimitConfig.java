@@ -1,9 +1,15 @@
 package com.foodsharing.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.foodsharing.security.InMemoryRateLimitStore;
+import com.foodsharing.security.JdbcRateLimitStore;
 import com.foodsharing.security.RateLimitInterceptor;
+import com.foodsharing.security.RateLimitStore;
 
 @Configuration
 public class RateLimitConfig implements WebMvcConfigurer {
@@ -14,6 +20,24 @@ public class RateLimitConfig implements WebMvcConfigurer {
         this.rateLimitInterceptor = rateLimitInterceptor;
     }
 
+    /**
+     * 限流计数存储：memory 为进程内（默认，单实例部署），jdbc 为多实例共享（基于 MySQL，批量近似同步）
+     */
+    @Bean
+    public static RateLimitStore rateLimitStore(@Value("${app.rate-limit.store:memory}") String type,
+                                                @Value("${app.rate-limit.max-keys:100000}") int maxKeys,
+                                                @Value("${app.rate-limit.sweep-ms:60000}") long sweepMs,
+                                                JdbcTemplate jdbcTemplate) {
+        switch (type) {
+            case "memory":
+                return new InMemoryRateLimitStore(maxKeys, sweepMs);
+            case "jdbc":
+                return new JdbcRateLimitStore(jdbcTemplate, maxKeys, sweepMs);
+            default:
+                throw new IllegalArgumentException("unknown app.rate-limit.store: " + type);
+        }
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(rateLimitInterceptor)
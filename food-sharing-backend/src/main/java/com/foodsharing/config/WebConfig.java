@@ -1,20 +1,27 @@
 package com.foodsharing.config;
 
 import com.foodsharing.security.AdminAuthInterceptor;
+import com.foodsharing.security.CurrentUserArgumentResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig {
     
     private final AdminAuthInterceptor adminAuthInterceptor;
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
 
-    public WebConfig(AdminAuthInterceptor adminAuthInterceptor) {
+    public WebConfig(AdminAuthInterceptor adminAuthInterceptor,
+                     CurrentUserArgumentResolver currentUserArgumentResolver) {
         this.adminAuthInterceptor = adminAuthInterceptor;
+        this.currentUserArgumentResolver = currentUserArgumentResolver;
     }
 
     @Bean
@@ -45,6 +52,11 @@ public class WebConfig {
                 registry.addInterceptor(adminAuthInterceptor);
                 // RateLimitInterceptor 在 RateLimitConfig 中注册
             }
+
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(currentUserArgumentResolver);
+            }
         };
     }
 }
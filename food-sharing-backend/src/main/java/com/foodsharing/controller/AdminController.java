@@ -2,10 +2,17 @@ package com.foodsharing.controller;
 
 import com.foodsharing.annotation.RequiresAdmin;
 import com.foodsharing.entity.*;
+import com.foodsharing.event.PostLifecycleEvent;
 import com.foodsharing.repository.*;
+import com.foodsharing.security.TokenVersionCache;
+import com.foodsharing.aspect.LogPolicy;
+import com.foodsharing.aspect.LogSamplingRule;
 import com.foodsharing.service.BackupService;
+import com.foodsharing.service.RecommendationCacheService;
 import com.foodsharing.service.SystemLogService;
+import com.foodsharing.service.SystemLogWriter;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -33,12 +40,22 @@ public class AdminController {
     private final SystemLogRepository systemLogRepository;
     private final SystemLogService systemLogService;
     private final BackupService backupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecommendationCacheService recommendationCacheService;
+    private final TokenVersionCache tokenVersionCache;
+    private final SystemLogWriter systemLogWriter;
+    private final LogPolicy logPolicy;
 
     public AdminController(UserRepository userRepository, PostRepository postRepository,
                           CommentRepository commentRepository, LikeRepository likeRepository,
                           FavoriteRepository favoriteRepository, MerchantRepository merchantRepository,
                           SystemConfigRepository systemConfigRepository, SystemLogRepository systemLogRepository,
-                          SystemLogService systemLogService, BackupService backupService) {
+                          SystemLogService systemLogService, BackupService backupService,
+                          ApplicationEventPublisher eventPublisher,
+                          RecommendationCacheService recommendationCacheService,
+                          TokenVersionCache tokenVersionCache,
+                          SystemLogWriter systemLogWriter,
+                          LogPolicy logPolicy) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
@@ -49,6 +66,11 @@ public class AdminController {
         this.systemLogRepository = systemLogRepository;
         this.systemLogService = systemLogService;
         this.backupService = backupService;
+        this.eventPublisher = eventPublisher;
+        this.recommendationCacheService = recommendationCacheService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.systemLogWriter = systemLogWriter;
+        this.logPolicy = logPolicy;
     }
 
     // ========== 用户管理 ==========
@@ -96,6 +118,12 @@ public class AdminController {
         Boolean enabled = body.get("enabled");
         user.setEnabled(enabled != null ? enabled : true);
         userRepository.save(user);
+        // 禁用时使已签发的令牌失效；启用后需重新登录
+        if (user.getEnabled()) {
+            tokenVersionCache.evict(id);
+        } else {
+            tokenVersionCache.revoke(id);
+        }
         
         systemLogService.logInfo("USER", enabled ? "ENABLE" : "DISABLE", 
                 "管理员 " + auth.getName() + " " + (enabled ? "启用" : "禁用") + "用户: " + user.getUsername(), request);
@@ -114,6 +142,8 @@ public class AdminController {
         if (role != null) {
             user.setRole(role);
             userRepository.save(user);
+            // 令牌中携带角色，修改后旧令牌失效，重新登录取得新角色
+            tokenVersionCache.revoke(id);
             
             systemLogService.logInfo("USER", "UPDATE_ROLE", 
                     "管理员 " + auth.getName() + " 修改用户 " + user.getUsername() + " 角色为: " + role, request);
@@ -128,6 +158,7 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
         userRepository.delete(user);
+        tokenVersionCache.evict(id);
         
         systemLogService.logInfo("USER", "DELETE", 
                 "管理员 " + auth.getName() + " 删除用户: " + user.getUsername(), request);
@@ -159,6 +190,7 @@ public class AdminController {
         }
         post.setStatus("APPROVED");
         postRepository.save(post);
+        eventPublisher.publishEvent(new PostLifecycleEvent(post, PostLifecycleEvent.Action.APPROVED));
         
         systemLogService.logInfo("POST", "APPROVE", 
                 "管理员 " + auth.getName() + " 审核通过内容: " + post.getTitle(), request);
@@ -175,6 +207,7 @@ public class AdminController {
         }
         post.setStatus("REJECTED");
         postRepository.save(post);
+        eventPublisher.publishEvent(new PostLifecycleEvent(post, PostLifecycleEvent.Action.REJECTED));
         
         String reason = body != null ? body.get("reason") : null;
         systemLogService.logWarn("POST", "REJECT", 
@@ -183,6 +216,21 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("message", "已拒绝"));
     }
 
+    @DeleteMapping("/posts/{id}")
+    public ResponseEntity<?> deletePost(@PathVariable Long id, Authentication auth, HttpServletRequest request) {
+        Post post = postRepository.findById(id).orElse(null);
+        if (post == null) {
+            return ResponseEntity.notFound().build();
+        }
+        postRepository.delete(post);
+        eventPublisher.publishEvent(new PostLifecycleEvent(post, PostLifecycleEvent.Action.DELETED));
+        
+        systemLogService.logWarn("POST", "DELETE", 
+                "管理员 " + auth.getName() + " 删除内容: " + post.getTitle(), request);
+        
+        return ResponseEntity.ok(Map.of("message", "删除成功"));
+    }
+
     // ========== 数据统计 ==========
     @GetMapping("/statistics/overview")
     public ResponseEntity<?> getStatistics() {
@@ -232,6 +280,16 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/statistics/recommendation-cache")
+    public ResponseEntity<?> getRecommendationCacheStats() {
+        return ResponseEntity.ok(recommendationCacheService.getStats());
+    }
+
+    @GetMapping("/statistics/system-log")
+    public ResponseEntity<?> getSystemLogStats() {
+        return ResponseEntity.ok(systemLogWriter.getStats());
+    }
+
     // ========== 系统配置 ==========
     @GetMapping("/configs")
     public ResponseEntity<?> getConfigs() {
@@ -250,9 +308,14 @@ public class AdminController {
         if (systemConfigRepository.findByConfigKey(config.getConfigKey()).isPresent()) {
             return ResponseEntity.badRequest().body(Map.of("message", "配置键已存在"));
         }
+        String invalid = validateConfig(config.getConfigKey(), config.getConfigValue());
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", invalid));
+        }
         config.setCreatedAt(LocalDateTime.now());
         config.setUpdatedAt(LocalDateTime.now());
         systemConfigRepository.save(config);
+        reloadConfig(config.getConfigKey());
         
         systemLogService.logInfo("SYSTEM", "CREATE_CONFIG", 
                 "管理员 " + auth.getName() + " 创建配置: " + config.getConfigKey(), request);
@@ -267,12 +330,17 @@ public class AdminController {
         if (config == null) {
             return ResponseEntity.notFound().build();
         }
+        String invalid = validateConfig(key, configUpdate.getConfigValue());
+        if (invalid != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", invalid));
+        }
         config.setConfigValue(configUpdate.getConfigValue());
         if (configUpdate.getDescription() != null) {
             config.setDescription(configUpdate.getDescription());
         }
         config.setUpdatedAt(LocalDateTime.now());
         systemConfigRepository.save(config);
+        reloadConfig(key);
         
         systemLogService.logInfo("SYSTEM", "UPDATE_CONFIG", 
                 "管理员 " + auth.getName() + " 更新配置: " + key, request);
@@ -287,6 +355,7 @@ public class AdminController {
             return ResponseEntity.notFound().build();
         }
         systemConfigRepository.delete(config);
+        reloadConfig(key);
         
         systemLogService.logInfo("SYSTEM", "DELETE_CONFIG", 
                 "管理员 " + auth.getName() + " 删除配置: " + key, request);
@@ -294,6 +363,29 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("message", "删除成功"));
     }
 
+    /**
+     * 校验需要解析的配置项，返回错误信息，合法时返回 null
+     */
+    private String validateConfig(String key, String value) {
+        if (LogPolicy.CONFIG_KEY.equals(key)) {
+            try {
+                LogSamplingRule.parseRules(value);
+            } catch (IllegalArgumentException e) {
+                return "日志采样规则格式错误: " + e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 运行时生效的配置项修改后立即重新加载
+     */
+    private void reloadConfig(String key) {
+        if (LogPolicy.CONFIG_KEY.equals(key)) {
+            logPolicy.reload();
+        }
+    }
+
     // ========== 日志查看 ==========
     @GetMapping("/logs")
     public ResponseEntity<?> getLogs(
@@ -7,9 +7,11 @@ import com.foodsharing.entity.User;
 import com.foodsharing.exception.BusinessException;
 import com.foodsharing.repository.UserRepository;
 import com.foodsharing.security.JwtUtil;
+import com.foodsharing.security.UserPrincipal;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
@@ -55,13 +57,15 @@ public class AuthController {
             Authentication auth = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(req.getUsernameOrEmail(), req.getPassword())
             );
-            String token = jwtUtil.generateToken(auth.getName());
+            String token = jwtUtil.generateToken(((UserPrincipal) auth.getPrincipal()).getUser());
             Map<String, Object> body = new HashMap<>();
             body.put("token", token);
             body.put("tokenType", "Bearer");
             return ResponseEntity.ok(ApiResponse.success(body));
         } catch (BadCredentialsException e) {
             throw new BusinessException(401, "用户名或密码错误");
+        } catch (DisabledException e) {
+            throw new BusinessException(403, "账号已被禁用");
         }
     }
 }
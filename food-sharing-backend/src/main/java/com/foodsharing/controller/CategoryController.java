@@ -3,6 +3,7 @@ package com.foodsharing.controller;
 import com.foodsharing.dto.CategoryCreateRequest;
 import com.foodsharing.entity.Category;
 import com.foodsharing.repository.CategoryRepository;
+import com.foodsharing.service.SuggestService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +15,11 @@ import java.util.Map;
 public class CategoryController {
 
     private final CategoryRepository categoryRepository;
+    private final SuggestService suggestService;
 
-    public CategoryController(CategoryRepository categoryRepository) {
+    public CategoryController(CategoryRepository categoryRepository, SuggestService suggestService) {
         this.categoryRepository = categoryRepository;
+        this.suggestService = suggestService;
     }
 
     @GetMapping
@@ -36,6 +39,7 @@ public class CategoryController {
         Category c = new Category();
         c.setName(req.getName().trim());
         categoryRepository.save(c);
+        suggestService.put(SuggestService.CATEGORY, c.getId(), c.getName(), 0);
         return ResponseEntity.ok(Map.of("id", c.getId(), "name", c.getName()));
     }
 }
@@ -1,16 +1,19 @@
 package com.foodsharing.controller;
 
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.dto.CommentCreateRequest;
 import com.foodsharing.entity.Comment;
 import com.foodsharing.entity.Post;
 import com.foodsharing.entity.User;
+import com.foodsharing.event.PostInteractionEvent;
 import com.foodsharing.repository.CommentRepository;
 import com.foodsharing.repository.PostRepository;
-import com.foodsharing.repository.UserRepository;
+import com.foodsharing.service.CommentThreadService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,28 +28,28 @@ public class CommentController {
 
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CommentThreadService commentThreadService;
 
     public CommentController(CommentRepository commentRepository,
                            PostRepository postRepository,
-                           UserRepository userRepository) {
+                           ApplicationEventPublisher eventPublisher,
+                           CommentThreadService commentThreadService) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
-        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.commentThreadService = commentThreadService;
     }
 
     @PostMapping("/posts/{postId}")
+    @Transactional
     public ResponseEntity<?> createComment(@PathVariable Long postId,
                                          @Validated @RequestBody CommentCreateRequest req,
-                                         Authentication authentication) {
-        if (authentication == null) {
+                                         @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
-
         Post post = postRepository.findById(postId).orElse(null);
         if (post == null) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
 
@@ -62,7 +65,10 @@ public class CommentController {
             }
         }
 
-        Comment saved = commentRepository.save(comment);
+        Comment saved = commentThreadService.save(comment);
+        postRepository.incrementCommentCount(post.getId(), 1);
+        eventPublisher.publishEvent(new PostInteractionEvent(
+                post.getId(), user.getId(), PostInteractionEvent.Type.COMMENT, 1));
         return ResponseEntity.ok(toCommentMap(saved));
     }
 
@@ -85,21 +91,71 @@ public class CommentController {
         resp.put("size", result.getSize());
         resp.put("totalElements", result.getTotalElements());
         resp.put("totalPages", result.getTotalPages());
-        resp.put("items", result.getContent().stream().map(this::toCommentMapWithReplies).collect(Collectors.toList()));
+        Map<Long, CommentThreadService.ReplyPage> previews = commentThreadService.loadReplyPreviews(
+            result.getContent().stream().map(Comment::getId).collect(Collectors.toList())
+        );
+        resp.put("items", result.getContent().stream()
+            .map(c -> toCommentMapWithReplies(c, previews.get(c.getId())))
+            .collect(Collectors.toList()));
 
         return ResponseEntity.ok(resp);
     }
 
+    /**
+     * 评论的更多回复，按时间正序，游标分页（首个游标来自列表中的 moreRepliesCursor）
+     */
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<?> getReplies(@PathVariable Long commentId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "10") int size) {
+        if (size <= 0 || size > 100) size = 10;
+
+        CommentThreadService.ReplyPage page;
+        try {
+            page = commentThreadService.getReplies(commentId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "无效的游标"));
+        }
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("items", page.getReplies().stream().map(this::toCommentMap).collect(Collectors.toList()));
+        resp.put("nextCursor", page.getNextCursor());
+        resp.put("hasMore", page.getNextCursor() != null);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * 评论及其全部下级回复，按楼层深度优先顺序分页（游标为上一页返回的 nextCursor），每条带 parentId 和 depth
+     */
+    @GetMapping("/{commentId}/thread")
+    public ResponseEntity<?> getThread(@PathVariable Long commentId,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "20") int size) {
+        if (size <= 0 || size > 100) size = 20;
+
+        CommentThreadService.SubtreePage page = commentThreadService.getSubtree(commentId, cursor, size);
+        if (page == null) return ResponseEntity.status(404).body(Map.of("message", "评论不存在"));
+
+        int rootDepth = page.getRoot().getDepth();
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("items", page.getComments().stream().map(c -> {
+            Map<String, Object> m = toCommentMap(c);
+            m.put("parentId", c.getId().equals(commentId) || c.getParent() == null ? null : c.getParent().getId());
+            m.put("depth", c.getDepth() - rootDepth);
+            return m;
+        }).collect(Collectors.toList()));
+        resp.put("nextCursor", page.getNextCursor());
+        resp.put("hasMore", page.getNextCursor() != null);
+        return ResponseEntity.ok(resp);
+    }
+
     @DeleteMapping("/{commentId}")
-    public ResponseEntity<?> deleteComment(@PathVariable Long commentId, Authentication authentication) {
-        if (authentication == null) {
+    @Transactional
+    public ResponseEntity<?> deleteComment(@PathVariable Long commentId, @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
-
         Comment comment = commentRepository.findById(commentId).orElse(null);
         if (comment == null) return ResponseEntity.status(404).body(Map.of("message", "评论不存在"));
 
@@ -107,7 +163,13 @@ public class CommentController {
             return ResponseEntity.status(403).body(Map.of("message", "无权限删除"));
         }
 
+        Long postId = comment.getPost().getId();
+        // 下级回复由外键级联删除，计数按整棵子树扣减
+        int removed = (int) commentThreadService.countSubtree(comment);
         commentRepository.delete(comment);
+        postRepository.incrementCommentCount(postId, -removed);
+        eventPublisher.publishEvent(new PostInteractionEvent(
+                postId, user.getId(), PostInteractionEvent.Type.COMMENT, -removed));
         return ResponseEntity.ok(Map.of("message", "删除成功"));
     }
 
@@ -124,12 +186,14 @@ public class CommentController {
         return map;
     }
 
-    private Map<String, Object> toCommentMapWithReplies(Comment comment) {
+    private Map<String, Object> toCommentMapWithReplies(Comment comment, CommentThreadService.ReplyPage preview) {
         Map<String, Object> map = toCommentMap(comment);
         
-        // 获取回复
-        List<Comment> replies = commentRepository.findByParentOrderByCreatedAtAsc(comment);
+        // 回复预览，其余回复通过 moreRepliesCursor 分页获取
+        List<Comment> replies = preview == null ? List.of() : preview.getReplies();
         map.put("replies", replies.stream().map(this::toCommentMap).collect(Collectors.toList()));
+        map.put("replyCount", preview == null ? 0 : preview.getTotal());
+        map.put("moreRepliesCursor", preview == null ? null : preview.getNextCursor());
         
         return map;
     }
@@ -1,16 +1,15 @@
 package com.foodsharing.controller;
 
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.entity.Favorite;
 import com.foodsharing.entity.Post;
 import com.foodsharing.entity.User;
 import com.foodsharing.repository.FavoriteRepository;
 import com.foodsharing.repository.PostRepository;
-import com.foodsharing.repository.UserRepository;
+import com.foodsharing.service.InteractionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -23,65 +22,78 @@ public class FavoriteController {
 
     private final FavoriteRepository favoriteRepository;
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final InteractionService interactionService;
 
     public FavoriteController(FavoriteRepository favoriteRepository,
                             PostRepository postRepository,
-                            UserRepository userRepository) {
+                            InteractionService interactionService) {
         this.favoriteRepository = favoriteRepository;
         this.postRepository = postRepository;
-        this.userRepository = userRepository;
+        this.interactionService = interactionService;
     }
 
     @PostMapping("/posts/{postId}")
-    @Transactional
-    public ResponseEntity<?> toggleFavorite(@PathVariable Long postId, Authentication authentication) {
-        if (authentication == null) {
+    public ResponseEntity<?> toggleFavorite(@PathVariable Long postId, @CurrentUser Long userId) {
+        if (userId == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
+        if (!postRepository.existsById(postId)) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
 
-        Post post = postRepository.findById(postId).orElse(null);
-        if (post == null) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
+        boolean favorited = interactionService.toggleFavorite(userId, postId);
+        return favoriteResponse(postId, favorited);
+    }
+
+    /**
+     * 收藏（幂等）：重复请求不会重复计数
+     */
+    @PutMapping("/posts/{postId}")
+    public ResponseEntity<?> favorite(@PathVariable Long postId, @CurrentUser Long userId) {
+        return setFavorited(postId, true, userId);
+    }
+
+    /**
+     * 取消收藏（幂等）
+     */
+    @DeleteMapping("/posts/{postId}")
+    public ResponseEntity<?> unfavorite(@PathVariable Long postId, @CurrentUser Long userId) {
+        return setFavorited(postId, false, userId);
+    }
 
-        boolean isFavorited = favoriteRepository.existsByUserAndPost(user, post);
-        
-        if (isFavorited) {
-            // 取消收藏
-            favoriteRepository.deleteByUserAndPost(user, post);
+    private ResponseEntity<?> setFavorited(Long postId, boolean favorited, Long userId) {
+        if (userId == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
+        }
+
+        if (favorited) {
+            interactionService.favorite(userId, postId);
         } else {
-            // 收藏
-            Favorite favorite = new Favorite();
-            favorite.setUser(user);
-            favorite.setPost(post);
-            favoriteRepository.save(favorite);
+            interactionService.unfavorite(userId, postId);
         }
+        return favoriteResponse(postId, favorited);
+    }
+
+    private ResponseEntity<?> favoriteResponse(Long postId, boolean favorited) {
+        // 内容不存在时插入被忽略，这里读取计数时一并判断
+        Long favoriteCount = postRepository.findFavoriteCount(postId).orElse(null);
+        if (favoriteCount == null) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
 
-        long favoriteCount = favoriteRepository.countByPost(post);
-        
         return ResponseEntity.ok(Map.of(
-            "favorited", !isFavorited,
+            "favorited", favorited,
             "favoriteCount", favoriteCount
         ));
     }
 
     @GetMapping("/posts/{postId}")
-    public ResponseEntity<?> getFavoriteStatus(@PathVariable Long postId, Authentication authentication) {
+    public ResponseEntity<?> getFavoriteStatus(@PathVariable Long postId, @CurrentUser User user) {
         Post post = postRepository.findById(postId).orElse(null);
         if (post == null) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
 
-        long favoriteCount = favoriteRepository.countByPost(post);
+        long favoriteCount = post.getFavoriteCount();
         boolean favorited = false;
 
-        if (authentication != null) {
-            String username = authentication.getName();
-            User user = userRepository.findByUsername(username).orElse(null);
-            if (user != null) {
-                favorited = favoriteRepository.existsByUserAndPost(user, post);
-            }
+        if (user != null) {
+            favorited = favoriteRepository.existsByUserAndPost(user, post);
         }
 
         return ResponseEntity.ok(Map.of(
@@ -93,15 +105,11 @@ public class FavoriteController {
     @GetMapping("/my")
     public ResponseEntity<?> getMyFavorites(@RequestParam(defaultValue = "0") int page,
                                           @RequestParam(defaultValue = "10") int size,
-                                          Authentication authentication) {
-        if (authentication == null) {
+                                          @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
-
         if (page < 0) page = 0;
         if (size <= 0 || size > 100) size = 10;
 
@@ -0,0 +1,74 @@
+package com.foodsharing.controller;
+
+import com.foodsharing.annotation.CurrentUser;
+import com.foodsharing.entity.Post;
+import com.foodsharing.repository.PostRepository;
+import com.foodsharing.service.FeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/feed")
+public class FeedController {
+
+    private final FeedService feedService;
+    private final PostRepository postRepository;
+
+    public FeedController(FeedService feedService,
+                          PostRepository postRepository) {
+        this.feedService = feedService;
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * 关注动态，按发布时间倒序，游标分页
+     */
+    @GetMapping
+    public ResponseEntity<?> feed(@CurrentUser Long userId,
+                                  @RequestParam(required = false) String cursor,
+                                  @RequestParam(defaultValue = "10") int size) {
+        if (userId == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
+        }
+        if (size <= 0 || size > 100) size = 10;
+
+        FeedService.FeedPage page;
+        try {
+            page = feedService.getFeed(userId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "无效的游标"));
+        }
+
+        Map<Long, Post> byId = postRepository.findByIdIn(page.getPostIds()).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<Map<String, Object>> items = page.getPostIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toListMap)
+                .collect(Collectors.toList());
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("items", items);
+        resp.put("nextCursor", page.getNextCursor());
+        resp.put("hasMore", page.getNextCursor() != null);
+        return ResponseEntity.ok(resp);
+    }
+
+    private Map<String, Object> toListMap(Post p) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", p.getId());
+        m.put("title", p.getTitle());
+        m.put("imageUrl", p.getImageUrl());
+        m.put("videoUrl", p.getVideoUrl());
+        m.put("category", p.getCategory() == null ? null : Map.of("id", p.getCategory().getId(), "name", p.getCategory().getName()));
+        m.put("tags", p.getTags().stream().map(t -> Map.of("id", t.getId(), "name", t.getName())).collect(Collectors.toList()));
+        m.put("author", p.getAuthor() == null ? null : Map.of("id", p.getAuthor().getId(), "username", p.getAuthor().getUsername()));
+        m.put("viewCount", p.getViewCount());
+        m.put("createdAt", p.getCreatedAt());
+        return m;
+    }
+}
@@ -1,14 +1,14 @@
 package com.foodsharing.controller;
 
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.entity.Follow;
 import com.foodsharing.entity.User;
 import com.foodsharing.repository.FollowRepository;
 import com.foodsharing.repository.UserRepository;
+import com.foodsharing.service.InteractionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -21,54 +21,74 @@ public class FollowController {
 
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
+    private final InteractionService interactionService;
 
     public FollowController(FollowRepository followRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          InteractionService interactionService) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
+        this.interactionService = interactionService;
     }
 
     @PostMapping("/users/{userId}")
-    @Transactional
-    public ResponseEntity<?> toggleFollow(@PathVariable Long userId, Authentication authentication) {
-        if (authentication == null) {
+    public ResponseEntity<?> toggleFollow(@PathVariable Long userId, @CurrentUser Long followerId) {
+        if (followerId == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User follower = userRepository.findByUsername(username).orElse(null);
-        if (follower == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
+        if (followerId.equals(userId)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "不能关注自己"));
+        }
+        if (!userRepository.existsById(userId)) return ResponseEntity.status(404).body(Map.of("message", "目标用户不存在"));
+
+        boolean following = interactionService.toggleFollow(followerId, userId);
+        return ResponseEntity.ok(Map.of(
+            "following", following,
+            "followerCount", followRepository.countFollowersByUserId(userId)
+        ));
+    }
 
-        User following = userRepository.findById(userId).orElse(null);
-        if (following == null) return ResponseEntity.status(404).body(Map.of("message", "目标用户不存在"));
+    /**
+     * 关注（幂等）：重复请求不会重复写入
+     */
+    @PutMapping("/users/{userId}")
+    public ResponseEntity<?> follow(@PathVariable Long userId, @CurrentUser Long followerId) {
+        return setFollowing(userId, true, followerId);
+    }
 
-        if (follower.getId().equals(following.getId())) {
-            return ResponseEntity.badRequest().body(Map.of("message", "不能关注自己"));
+    /**
+     * 取消关注（幂等）
+     */
+    @DeleteMapping("/users/{userId}")
+    public ResponseEntity<?> unfollow(@PathVariable Long userId, @CurrentUser Long followerId) {
+        return setFollowing(userId, false, followerId);
+    }
+
+    private ResponseEntity<?> setFollowing(Long userId, boolean following, Long followerId) {
+        if (followerId == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        boolean isFollowing = followRepository.existsByFollowerAndFollowing(follower, following);
-        
-        if (isFollowing) {
-            // 取消关注
-            followRepository.deleteByFollowerAndFollowing(follower, following);
-        } else {
-            // 关注
-            Follow follow = new Follow();
-            follow.setFollower(follower);
-            follow.setFollowing(following);
-            followRepository.save(follow);
+        if (followerId.equals(userId)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "不能关注自己"));
         }
 
-        long followerCount = followRepository.countFollowers(following);
-        
+        boolean changed = following
+                ? interactionService.follow(followerId, userId)
+                : interactionService.unfollow(followerId, userId);
+        // 目标用户不存在时插入被忽略，只在未发生变化时再确认
+        if (!changed && !userRepository.existsById(userId)) {
+            return ResponseEntity.status(404).body(Map.of("message", "目标用户不存在"));
+        }
         return ResponseEntity.ok(Map.of(
-            "following", !isFollowing,
-            "followerCount", followerCount
+            "following", following,
+            "followerCount", followRepository.countFollowersByUserId(userId)
         ));
     }
 
     @GetMapping("/users/{userId}")
-    public ResponseEntity<?> getFollowStatus(@PathVariable Long userId, Authentication authentication) {
+    public ResponseEntity<?> getFollowStatus(@PathVariable Long userId, @CurrentUser User currentUser) {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
 
@@ -76,12 +96,8 @@ public class FollowController {
         long followingCount = followRepository.countFollowing(user);
         boolean following = false;
 
-        if (authentication != null) {
-            String username = authentication.getName();
-            User currentUser = userRepository.findByUsername(username).orElse(null);
-            if (currentUser != null && !currentUser.getId().equals(userId)) {
-                following = followRepository.existsByFollowerAndFollowing(currentUser, user);
-            }
+        if (currentUser != null && !currentUser.getId().equals(userId)) {
+            following = followRepository.existsByFollowerAndFollowing(currentUser, user);
         }
 
         return ResponseEntity.ok(Map.of(
@@ -94,15 +110,11 @@ public class FollowController {
     @GetMapping("/followers")
     public ResponseEntity<?> getFollowers(@RequestParam(defaultValue = "0") int page,
                                         @RequestParam(defaultValue = "10") int size,
-                                        Authentication authentication) {
-        if (authentication == null) {
+                                        @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
-
         if (page < 0) page = 0;
         if (size <= 0 || size > 100) size = 10;
 
@@ -123,15 +135,11 @@ public class FollowController {
     @GetMapping("/following")
     public ResponseEntity<?> getFollowing(@RequestParam(defaultValue = "0") int page,
                                         @RequestParam(defaultValue = "10") int size,
-                                        Authentication authentication) {
-        if (authentication == null) {
+                                        @CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
-
         if (page < 0) page = 0;
         if (size <= 0 || size > 100) size = 10;
 
@@ -0,0 +1,65 @@
+package com.foodsharing.controller;
+
+import com.foodsharing.annotation.CurrentUser;
+import com.foodsharing.repository.FavoriteRepository;
+import com.foodsharing.repository.LikeRepository;
+import com.foodsharing.repository.PostRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/v1/interactions")
+public class InteractionController {
+
+    private static final int MAX_POST_IDS = 100;
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final FavoriteRepository favoriteRepository;
+
+    public InteractionController(PostRepository postRepository,
+                                 LikeRepository likeRepository,
+                                 FavoriteRepository favoriteRepository) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.favoriteRepository = favoriteRepository;
+    }
+
+    /**
+     * 批量获取内容的互动状态：点赞、收藏、评论数，以及当前用户是否已点赞/收藏（未登录时为 false）
+     * 例如 GET /api/v1/interactions/posts?ids=1,2,3，返回以内容ID为键的对象，不存在的内容不返回
+     */
+    @GetMapping("/posts")
+    public ResponseEntity<?> getPostStatus(@RequestParam List<Long> ids, @CurrentUser Long userId) {
+        Set<Long> postIds = new LinkedHashSet<>(ids);
+        postIds.remove(null);
+        if (postIds.isEmpty()) {
+            return ResponseEntity.ok(Map.of());
+        }
+        if (postIds.size() > MAX_POST_IDS) {
+            return ResponseEntity.badRequest().body(Map.of("message", "一次最多查询" + MAX_POST_IDS + "条内容"));
+        }
+
+        Set<Long> liked = Set.of();
+        Set<Long> favorited = Set.of();
+        if (userId != null) {
+            liked = new HashSet<>(likeRepository.findLikedPostIds(userId, postIds));
+            favorited = new HashSet<>(favoriteRepository.findFavoritedPostIds(userId, postIds));
+        }
+
+        Map<Long, Map<String, Object>> resp = new LinkedHashMap<>();
+        for (Object[] row : postRepository.findEngagementCounts(postIds)) {
+            Long postId = (Long) row[0];
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("liked", liked.contains(postId));
+            m.put("favorited", favorited.contains(postId));
+            m.put("likeCount", row[1]);
+            m.put("commentCount", row[2]);
+            m.put("favoriteCount", row[3]);
+            resp.put(postId, m);
+        }
+        return ResponseEntity.ok(resp);
+    }
+}
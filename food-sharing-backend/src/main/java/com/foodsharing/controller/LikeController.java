@@ -1,14 +1,12 @@
 package com.foodsharing.controller;
 
-import com.foodsharing.entity.Like;
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.entity.Post;
 import com.foodsharing.entity.User;
 import com.foodsharing.repository.LikeRepository;
 import com.foodsharing.repository.PostRepository;
-import com.foodsharing.repository.UserRepository;
+import com.foodsharing.service.InteractionService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -19,65 +17,78 @@ public class LikeController {
 
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final InteractionService interactionService;
 
     public LikeController(LikeRepository likeRepository, 
                          PostRepository postRepository,
-                         UserRepository userRepository) {
+                         InteractionService interactionService) {
         this.likeRepository = likeRepository;
         this.postRepository = postRepository;
-        this.userRepository = userRepository;
+        this.interactionService = interactionService;
     }
 
     @PostMapping("/posts/{postId}")
-    @Transactional
-    public ResponseEntity<?> toggleLike(@PathVariable Long postId, Authentication authentication) {
-        if (authentication == null) {
+    public ResponseEntity<?> toggleLike(@PathVariable Long postId, @CurrentUser Long userId) {
+        if (userId == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
-        if (user == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
+        if (!postRepository.existsById(postId)) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
 
-        Post post = postRepository.findById(postId).orElse(null);
-        if (post == null) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
+        boolean liked = interactionService.toggleLike(userId, postId);
+        return likeResponse(postId, liked);
+    }
+
+    /**
+     * 点赞（幂等）：重复请求不会重复计数
+     */
+    @PutMapping("/posts/{postId}")
+    public ResponseEntity<?> like(@PathVariable Long postId, @CurrentUser Long userId) {
+        return setLiked(postId, true, userId);
+    }
+
+    /**
+     * 取消点赞（幂等）
+     */
+    @DeleteMapping("/posts/{postId}")
+    public ResponseEntity<?> unlike(@PathVariable Long postId, @CurrentUser Long userId) {
+        return setLiked(postId, false, userId);
+    }
 
-        boolean isLiked = likeRepository.existsByUserAndPost(user, post);
-        
-        if (isLiked) {
-            // 取消点赞
-            likeRepository.deleteByUserAndPost(user, post);
+    private ResponseEntity<?> setLiked(Long postId, boolean liked, Long userId) {
+        if (userId == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
+        }
+
+        if (liked) {
+            interactionService.like(userId, postId);
         } else {
-            // 点赞
-            Like like = new Like();
-            like.setUser(user);
-            like.setPost(post);
-            likeRepository.save(like);
+            interactionService.unlike(userId, postId);
         }
+        return likeResponse(postId, liked);
+    }
+
+    private ResponseEntity<?> likeResponse(Long postId, boolean liked) {
+        // 内容不存在时插入被忽略，这里读取计数时一并判断
+        Long likeCount = postRepository.findLikeCount(postId).orElse(null);
+        if (likeCount == null) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
 
-        long likeCount = likeRepository.countByPost(post);
-        
         return ResponseEntity.ok(Map.of(
-            "liked", !isLiked,
+            "liked", liked,
             "likeCount", likeCount
         ));
     }
 
     @GetMapping("/posts/{postId}")
-    public ResponseEntity<?> getLikeStatus(@PathVariable Long postId, Authentication authentication) {
+    public ResponseEntity<?> getLikeStatus(@PathVariable Long postId, @CurrentUser User user) {
         Post post = postRepository.findById(postId).orElse(null);
         if (post == null) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
 
-        long likeCount = likeRepository.countByPost(post);
+        long likeCount = post.getLikeCount();
         boolean liked = false;
 
-        if (authentication != null) {
-            String username = authentication.getName();
-            User user = userRepository.findByUsername(username).orElse(null);
-            if (user != null) {
-                liked = likeRepository.existsByUserAndPost(user, post);
-            }
+        if (user != null) {
+            liked = likeRepository.existsByUserAndPost(user, post);
         }
 
         return ResponseEntity.ok(Map.of(
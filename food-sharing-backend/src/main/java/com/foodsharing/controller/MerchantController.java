@@ -1,5 +1,6 @@
 package com.foodsharing.controller;
 
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.dto.MerchantCreateRequest;
 import com.foodsharing.dto.MerchantUpdateRequest;
 import com.foodsharing.entity.Merchant;
@@ -7,6 +8,7 @@ import com.foodsharing.entity.User;
 import com.foodsharing.repository.MerchantRepository;
 import com.foodsharing.repository.UserRepository;
 import com.foodsharing.service.FileStorageService;
+import com.foodsharing.service.SuggestService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -27,26 +29,23 @@ public class MerchantController {
     private final MerchantRepository merchantRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final SuggestService suggestService;
 
     public MerchantController(MerchantRepository merchantRepository,
                              UserRepository userRepository,
-                             FileStorageService fileStorageService) {
+                             FileStorageService fileStorageService,
+                             SuggestService suggestService) {
         this.merchantRepository = merchantRepository;
         this.userRepository = userRepository;
         this.fileStorageService = fileStorageService;
+        this.suggestService = suggestService;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(Authentication authentication,
+    public ResponseEntity<?> register(@CurrentUser User user,
                                     @Valid @RequestBody MerchantCreateRequest req) {
-        if (authentication == null) {
-            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
-        }
-
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
         if (user == null) {
-            return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
+            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
         // 检查是否已经注册过商家
@@ -97,15 +96,9 @@ public class MerchantController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getMyMerchant(Authentication authentication) {
-        if (authentication == null) {
-            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
-        }
-
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
+    public ResponseEntity<?> getMyMerchant(@CurrentUser User user) {
         if (user == null) {
-            return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
+            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
         Merchant merchant = merchantRepository.findByUser(user).orElse(null);
@@ -117,16 +110,10 @@ public class MerchantController {
     }
 
     @PutMapping("/me")
-    public ResponseEntity<?> updateMyMerchant(Authentication authentication,
+    public ResponseEntity<?> updateMyMerchant(@CurrentUser User user,
                                             @RequestBody MerchantUpdateRequest req) {
-        if (authentication == null) {
-            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
-        }
-
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username).orElse(null);
         if (user == null) {
-            return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
+            return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
 
         Merchant merchant = merchantRepository.findByUser(user).orElse(null);
@@ -150,6 +137,12 @@ public class MerchantController {
         if (req.getStatus() != null) merchant.setStatus(req.getStatus());
 
         Merchant saved = merchantRepository.save(merchant);
+        // 只有营业中的商家参与搜索联想
+        if (saved.getStatus() == 1) {
+            suggestService.put(SuggestService.MERCHANT, saved.getId(), saved.getName(), saved.getReviewCount());
+        } else {
+            suggestService.remove(SuggestService.MERCHANT, saved.getId());
+        }
         return ResponseEntity.ok(toMerchantMap(saved));
     }
 
@@ -1,27 +1,33 @@
 package com.foodsharing.controller;
 
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.dto.PostCreateRequest;
 import com.foodsharing.entity.Category;
 import com.foodsharing.entity.Post;
 import com.foodsharing.entity.Tag;
 import com.foodsharing.entity.User;
+import com.foodsharing.event.PostInteractionEvent;
+import com.foodsharing.event.PostLifecycleEvent;
 import com.foodsharing.repository.CategoryRepository;
 import com.foodsharing.repository.PostRepository;
 import com.foodsharing.repository.TagRepository;
 import com.foodsharing.repository.UserRepository;
-import com.foodsharing.repository.LikeRepository;
-import com.foodsharing.repository.CommentRepository;
-import com.foodsharing.repository.FavoriteRepository;
+import com.foodsharing.service.SearchIndexService;
+import com.foodsharing.service.SimilarPostService;
+import com.foodsharing.service.ViewCountService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -33,34 +39,34 @@ public class PostController {
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final TagRepository tagRepository;
-    private final LikeRepository likeRepository;
-    private final CommentRepository commentRepository;
-    private final FavoriteRepository favoriteRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimilarPostService similarPostService;
+    private final SearchIndexService searchIndexService;
+    private final ViewCountService viewCountService;
 
     public PostController(PostRepository postRepository,
                           UserRepository userRepository,
                           CategoryRepository categoryRepository,
                           TagRepository tagRepository,
-                          LikeRepository likeRepository,
-                          CommentRepository commentRepository,
-                          FavoriteRepository favoriteRepository) {
+                          ApplicationEventPublisher eventPublisher,
+                          SimilarPostService similarPostService,
+                          SearchIndexService searchIndexService,
+                          ViewCountService viewCountService) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.tagRepository = tagRepository;
-        this.likeRepository = likeRepository;
-        this.commentRepository = commentRepository;
-        this.favoriteRepository = favoriteRepository;
+        this.eventPublisher = eventPublisher;
+        this.similarPostService = similarPostService;
+        this.searchIndexService = searchIndexService;
+        this.viewCountService = viewCountService;
     }
 
     @PostMapping
-    public ResponseEntity<?> create(Authentication authentication, @RequestBody PostCreateRequest req) {
-        if (authentication == null) {
+    public ResponseEntity<?> create(@CurrentUser User author, @RequestBody PostCreateRequest req) {
+        if (author == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
-        String username = authentication.getName();
-        User author = userRepository.findByUsername(username).orElse(null);
-        if (author == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
 
         Post p = new Post();
         p.setTitle(req.getTitle());
@@ -90,34 +96,39 @@ public class PostController {
             author.setLevel(newLevel);
         }
         userRepository.save(author);
+        eventPublisher.publishEvent(new PostLifecycleEvent(saved, PostLifecycleEvent.Action.CREATED));
         return ResponseEntity.ok(toDetailMap(saved));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> detail(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> detail(@PathVariable Long id, @CurrentUser User user) {
         Optional<Post> opt = postRepository.findById(id);
         if (opt.isEmpty()) return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
         Post p = opt.get();
         
         // 普通用户只能查看已审核通过的内容
-        boolean isAdmin = false;
-        if (authentication != null) {
-            String username = authentication.getName();
-            User user = userRepository.findByUsername(username).orElse(null);
-            if (user != null && "ROLE_ADMIN".equals(user.getRole())) {
-                isAdmin = true;
-            }
-        }
+        boolean isAdmin = user != null && "ROLE_ADMIN".equals(user.getRole());
         
         if (!isAdmin && !"APPROVED".equals(p.getStatus())) {
             return ResponseEntity.status(404).body(Map.of("message", "内容不存在"));
         }
         
-        p.setViewCount(p.getViewCount() + 1);
-        postRepository.save(p);
+        viewCountService.increment(p.getId());
+        eventPublisher.publishEvent(new PostInteractionEvent(
+                p.getId(), user != null ? user.getId() : null, PostInteractionEvent.Type.VIEW, 1));
         return ResponseEntity.ok(toDetailMap(p));
     }
 
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> similar(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > 50) limit = 10;
+        List<Post> posts = similarPostService.getSimilarPosts(id, limit);
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("items", posts.stream().map(this::toListMap).collect(Collectors.toList()));
+        resp.put("count", posts.size());
+        return ResponseEntity.ok(resp);
+    }
+
     @GetMapping
     public ResponseEntity<?> list(@RequestParam(defaultValue = "0") int page,
                                   @RequestParam(defaultValue = "10") int size,
@@ -125,9 +136,26 @@ public class PostController {
                                   @RequestParam(required = false) Long categoryId,
                                   @RequestParam(required = false) Long tagId,
                                   @RequestParam(required = false) Long authorId,
-                                  @RequestParam(required = false) String sortBy) {
+                                  @RequestParam(required = false) String sortBy,
+                                  @RequestParam(required = false) String cursor) {
         if (page < 0) page = 0;
         if (size <= 0 || size > 100) size = 10;
+        boolean byViews = "hot".equals(sortBy) || "popular".equals(sortBy);
+        
+        // 游标模式：cursor 参数存在时按 (排序列, id) 定位，不做总数统计；第一页传空字符串
+        Object[] after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = decodeCursor(cursor, byViews);
+            if (after == null) {
+                return ResponseEntity.badRequest().body(Map.of("message", "无效的游标"));
+            }
+        }
+        final Object[] afterKey = after;
+        
+        // 关键词按子串匹配标题或正文；中文关键词先用全文索引缩小候选范围，结果仍按所选方式排序
+        // 按相关度排序使用 /api/v1/search/posts
+        String keyword = q != null && !q.isBlank() ? q.trim() : null;
+        List<Long> candidateIds = keyword != null ? searchIndexService.substringCandidates(keyword) : null;
         
         Specification<Post> spec = (root, query, cb) -> {
             List<jakarta.persistence.criteria.Predicate> predicates = new ArrayList<>();
@@ -135,8 +163,11 @@ public class PostController {
             // 普通用户只能看到已审核通过的内容
             predicates.add(cb.equal(root.get("status"), "APPROVED"));
             
-            if (q != null && !q.isBlank()) {
-                var like = "%" + q.trim() + "%";
+            if (keyword != null) {
+                if (candidateIds != null) {
+                    predicates.add(candidateIds.isEmpty() ? cb.disjunction() : root.get("id").in(candidateIds));
+                }
+                var like = "%" + keyword + "%";
                 predicates.add(cb.or(
                         cb.like(root.get("title"), like),
                         cb.like(root.get("content"), like)
@@ -153,6 +184,21 @@ public class PostController {
             if (authorId != null) {
                 predicates.add(cb.equal(root.get("author").get("id"), authorId));
             }
+            if (afterKey != null) {
+                if (byViews) {
+                    Long views = (Long) afterKey[0];
+                    predicates.add(cb.or(
+                            cb.lessThan(root.get("viewCount"), views),
+                            cb.and(cb.equal(root.get("viewCount"), views), cb.lessThan(root.get("id"), (Long) afterKey[1]))
+                    ));
+                } else {
+                    LocalDateTime createdAt = (LocalDateTime) afterKey[0];
+                    predicates.add(cb.or(
+                            cb.lessThan(root.get("createdAt"), createdAt),
+                            cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), (Long) afterKey[1]))
+                    ));
+                }
+            }
             return cb.and(predicates.toArray(jakarta.persistence.criteria.Predicate[]::new));
         };
         
@@ -168,6 +214,22 @@ public class PostController {
             sort = Sort.by(Sort.Direction.DESC, "createdAt");
         }
         
+        if (cursor != null) {
+            Sort keysetSort = byViews
+                    ? Sort.by(Sort.Direction.DESC, "viewCount", "id")
+                    : Sort.by(Sort.Direction.DESC, "createdAt", "id");
+            int limit = size + 1;
+            List<Post> rows = postRepository.findBy(spec, fq -> fq.sortBy(keysetSort).limit(limit).all());
+            boolean hasMore = rows.size() > size;
+            List<Post> items = hasMore ? rows.subList(0, size) : rows;
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("size", size);
+            resp.put("items", items.stream().map(this::toListMap).collect(Collectors.toList()));
+            resp.put("hasMore", hasMore);
+            resp.put("nextCursor", hasMore ? encodeCursor(items.get(items.size() - 1), byViews) : null);
+            return ResponseEntity.ok(resp);
+        }
+        
         Page<Post> result = postRepository.findAll(spec, PageRequest.of(page, size, sort));
         Map<String, Object> resp = new HashMap<>();
         resp.put("page", result.getNumber());
@@ -178,6 +240,43 @@ public class PostController {
         return ResponseEntity.ok(resp);
     }
 
+    /**
+     * 游标格式：{排序列值}_{id}，按时间排序时排序列值为纳秒时间戳；
+     * 不能截断到毫秒，否则 datetime(6) 列上与游标同一毫秒内更早的内容会被跳过
+     */
+    private String encodeCursor(Post p, boolean byViews) {
+        long key;
+        if (byViews) {
+            key = p.getViewCount();
+        } else {
+            Instant createdAt = p.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+            key = createdAt.getEpochSecond() * 1_000_000_000L + createdAt.getNano();
+        }
+        return key + "_" + p.getId();
+    }
+
+    private Object[] decodeCursor(String cursor, boolean byViews) {
+        int sep = cursor.indexOf('_');
+        if (sep <= 0) return null;
+        try {
+            long key = Long.parseLong(cursor.substring(0, sep));
+            Long id = Long.parseLong(cursor.substring(sep + 1));
+            Object sortValue = byViews
+                    ? (Object) key
+                    : LocalDateTime.ofInstant(decodeCursorTime(key), ZoneId.systemDefault());
+            return new Object[]{sortValue, id};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 兼容之前签发的毫秒时间戳游标（纳秒时间戳远大于 1e15）
+     */
+    private static Instant decodeCursorTime(long key) {
+        return key < 1_000_000_000_000_000L ? Instant.ofEpochMilli(key) : Instant.ofEpochSecond(0, key);
+    }
+
     private Map<String, Object> toListMap(Post p) {
         Map<String, Object> m = new LinkedHashMap<>();
         m.put("id", p.getId());
@@ -187,7 +286,7 @@ public class PostController {
         m.put("category", p.getCategory() == null ? null : Map.of("id", p.getCategory().getId(), "name", p.getCategory().getName()));
         m.put("tags", p.getTags().stream().map(t -> Map.of("id", t.getId(), "name", t.getName())).collect(Collectors.toList()));
         m.put("author", p.getAuthor() == null ? null : Map.of("id", p.getAuthor().getId(), "username", p.getAuthor().getUsername()));
-        m.put("viewCount", p.getViewCount());
+        m.put("viewCount", viewCountService.getViewCount(p));
         m.put("createdAt", p.getCreatedAt());
         return m;
     }
@@ -200,9 +299,9 @@ public class PostController {
         m.put("address", p.getAddress());
         
         // 添加互动统计
-        m.put("likeCount", likeRepository.countByPost(p));
-        m.put("commentCount", commentRepository.countByPost(p));
-        m.put("favoriteCount", favoriteRepository.countByPost(p));
+        m.put("likeCount", p.getLikeCount());
+        m.put("commentCount", p.getCommentCount());
+        m.put("favoriteCount", p.getFavoriteCount());
         
         return m;
     }
@@ -1,11 +1,12 @@
 package com.foodsharing.controller;
 
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.entity.Post;
 import com.foodsharing.entity.User;
-import com.foodsharing.repository.UserRepository;
+import com.foodsharing.service.GeoIndexService;
+import com.foodsharing.service.RecommendationCacheService;
 import com.foodsharing.service.RecommendationService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -18,25 +19,19 @@ import java.util.stream.Collectors;
 public class RecommendationController {
 
     private final RecommendationService recommendationService;
-    private final UserRepository userRepository;
+    private final RecommendationCacheService recommendationCacheService;
 
     public RecommendationController(RecommendationService recommendationService,
-                                    UserRepository userRepository) {
+                                    RecommendationCacheService recommendationCacheService) {
         this.recommendationService = recommendationService;
-        this.userRepository = userRepository;
+        this.recommendationCacheService = recommendationCacheService;
     }
 
     @GetMapping("/personalized")
     public ResponseEntity<?> getPersonalizedRecommendations(
-            Authentication authentication,
+            @CurrentUser User user,
             @RequestParam(defaultValue = "10") int limit) {
         
-        User user = null;
-        if (authentication != null) {
-            String username = authentication.getName();
-            user = userRepository.findByUsername(username).orElse(null);
-        }
-
         List<Post> posts = recommendationService.getPersonalizedRecommendations(user, limit);
         
         Map<String, Object> resp = new HashMap<>();
@@ -50,48 +45,61 @@ public class RecommendationController {
     public ResponseEntity<?> getLocationBasedRecommendations(
             @RequestParam Double lat,
             @RequestParam Double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int limit) {
+        if (page < 0) page = 0;
+        if (limit <= 0 || limit > 100) limit = 10;
         
-        List<Post> posts = recommendationService.getLocationBasedRecommendations(lat, lng, limit);
+        List<Post> posts = recommendationService.getLocationBasedRecommendations(lat, lng, radiusKm, page, limit);
         
         Map<String, Object> resp = new HashMap<>();
-        resp.put("items", posts.stream().map(this::toPostMap).collect(Collectors.toList()));
+        resp.put("items", posts.stream().map(p -> {
+            Map<String, Object> m = toPostMap(p);
+            if (p.getLat() != null && p.getLng() != null) {
+                m.put("distanceKm", GeoIndexService.distanceKm(lat, lng, p.getLat(), p.getLng()));
+            }
+            return m;
+        }).collect(Collectors.toList()));
         resp.put("count", posts.size());
+        resp.put("page", page);
         
         return ResponseEntity.ok(resp);
     }
 
     @GetMapping("/popular")
     public ResponseEntity<?> getPopularPosts(@RequestParam(defaultValue = "10") int limit) {
-        List<Post> posts = recommendationService.getPopularPosts(limit);
-        
-        Map<String, Object> resp = new HashMap<>();
-        resp.put("items", posts.stream().map(this::toPostMap).collect(Collectors.toList()));
-        resp.put("count", posts.size());
-        
-        return ResponseEntity.ok(resp);
+        int size = limit <= 0 || limit > 100 ? 10 : limit;
+        return ResponseEntity.ok(recommendationCacheService.get(RecommendationCacheService.POPULAR, size,
+                () -> toListResponse(recommendationService.getPopularPosts(size))));
     }
 
     @GetMapping("/hot")
     public ResponseEntity<?> getHotPosts(@RequestParam(defaultValue = "10") int limit) {
-        List<Post> posts = recommendationService.getHotPosts(limit);
-        
-        Map<String, Object> resp = new HashMap<>();
-        resp.put("items", posts.stream().map(this::toPostMap).collect(Collectors.toList()));
-        resp.put("count", posts.size());
-        
-        return ResponseEntity.ok(resp);
+        int size = limit <= 0 || limit > 100 ? 10 : limit;
+        return ResponseEntity.ok(recommendationCacheService.get(RecommendationCacheService.HOT, size,
+                () -> toListResponse(recommendationService.getHotPosts(size))));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingPosts(@RequestParam(defaultValue = "10") int limit) {
+        int size = limit <= 0 || limit > 100 ? 10 : limit;
+        return ResponseEntity.ok(recommendationCacheService.get(RecommendationCacheService.TRENDING, size,
+                () -> toListResponse(recommendationService.getTrendingPosts(size))));
     }
 
     @GetMapping("/latest")
     public ResponseEntity<?> getLatestPosts(@RequestParam(defaultValue = "10") int limit) {
-        List<Post> posts = recommendationService.getLatestPosts(limit);
-        
+        int size = limit <= 0 || limit > 100 ? 10 : limit;
+        return ResponseEntity.ok(recommendationCacheService.get(RecommendationCacheService.LATEST, size,
+                () -> toListResponse(recommendationService.getLatestPosts(size))));
+    }
+
+    private Map<String, Object> toListResponse(List<Post> posts) {
         Map<String, Object> resp = new HashMap<>();
         resp.put("items", posts.stream().map(this::toPostMap).collect(Collectors.toList()));
         resp.put("count", posts.size());
-        
-        return ResponseEntity.ok(resp);
+        return resp;
     }
 
     private Map<String, Object> toPostMap(Post p) {
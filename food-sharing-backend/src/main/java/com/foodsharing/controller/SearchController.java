@@ -0,0 +1,105 @@
+package com.foodsharing.controller;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.repository.PostRepository;
+import com.foodsharing.service.SearchIndexService;
+import com.foodsharing.service.SuggestService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+
+    private static final int SNIPPET_LENGTH = 120;
+
+    private final SearchIndexService searchIndexService;
+    private final PostRepository postRepository;
+    private final SuggestService suggestService;
+
+    public SearchController(SearchIndexService searchIndexService,
+                            PostRepository postRepository,
+                            SuggestService suggestService) {
+        this.searchIndexService = searchIndexService;
+        this.postRepository = postRepository;
+        this.suggestService = suggestService;
+    }
+
+    /**
+     * 内容全文检索，按相关度排序，返回标题和正文的高亮片段
+     */
+    @GetMapping("/posts")
+    public ResponseEntity<?> searchPosts(@RequestParam String q,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "10") int size) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "搜索关键词不能为空"));
+        }
+        if (page < 0) page = 0;
+        if (size <= 0 || size > 100) size = 10;
+
+        // page 很大时 page * size 会溢出，按 long 计算后封顶（超出命中数的页直接返回空）
+        int offset = (int) Math.min((long) page * size, Integer.MAX_VALUE - size);
+        SearchIndexService.SearchResult result = searchIndexService.search(q, offset, size);
+        List<Long> ids = result.getHits().stream().map(SearchIndexService.Hit::getPostId).collect(Collectors.toList());
+        Map<Long, Post> byId = postRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (SearchIndexService.Hit hit : result.getHits()) {
+            Post p = byId.get(hit.getPostId());
+            if (p == null) continue;
+            Map<String, Object> m = toListMap(p);
+            m.put("score", hit.getScore());
+            Map<String, Object> highlight = new LinkedHashMap<>();
+            highlight.put("title", SearchIndexService.highlight(p.getTitle(), result.getTerms(), Integer.MAX_VALUE));
+            highlight.put("content", SearchIndexService.highlight(p.getContent(), result.getTerms(), SNIPPET_LENGTH));
+            m.put("highlight", highlight);
+            items.add(m);
+        }
+
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("page", page);
+        resp.put("size", size);
+        resp.put("totalElements", result.getTotal());
+        resp.put("totalPages", (result.getTotal() + size - 1) / size);
+        resp.put("items", items);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * 搜索联想：按前缀匹配内容标题、标签、分类和商家名称，按热度排序
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam(defaultValue = "") String prefix,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        if (limit <= 0 || limit > 20) limit = 10;
+        List<Map<String, Object>> items = suggestService.suggest(prefix, limit).stream().map(s -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("type", s.getType());
+            m.put("id", s.getId());
+            m.put("text", s.getText());
+            m.put("weight", s.getWeight());
+            return m;
+        }).collect(Collectors.toList());
+        return ResponseEntity.ok(Map.of("prefix", prefix, "items", items));
+    }
+
+    private Map<String, Object> toListMap(Post p) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", p.getId());
+        m.put("title", p.getTitle());
+        m.put("imageUrl", p.getImageUrl());
+        m.put("videoUrl", p.getVideoUrl());
+        m.put("category", p.getCategory() == null ? null : Map.of("id", p.getCategory().getId(), "name", p.getCategory().getName()));
+        m.put("tags", p.getTags().stream().map(t -> Map.of("id", t.getId(), "name", t.getName())).collect(Collectors.toList()));
+        m.put("author", p.getAuthor() == null ? null : Map.of("id", p.getAuthor().getId(), "username", p.getAuthor().getUsername()));
+        m.put("viewCount", p.getViewCount());
+        m.put("createdAt", p.getCreatedAt());
+        return m;
+    }
+}
@@ -3,6 +3,7 @@ package com.foodsharing.controller;
 import com.foodsharing.dto.TagCreateRequest;
 import com.foodsharing.entity.Tag;
 import com.foodsharing.repository.TagRepository;
+import com.foodsharing.service.SuggestService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,9 +15,11 @@ import java.util.Map;
 public class TagController {
 
     private final TagRepository tagRepository;
+    private final SuggestService suggestService;
 
-    public TagController(TagRepository tagRepository) {
+    public TagController(TagRepository tagRepository, SuggestService suggestService) {
         this.tagRepository = tagRepository;
+        this.suggestService = suggestService;
     }
 
     @GetMapping
@@ -36,6 +39,7 @@ public class TagController {
         Tag t = new Tag();
         t.setName(req.getName().trim());
         tagRepository.save(t);
+        suggestService.put(SuggestService.TAG, t.getId(), t.getName(), 0);
         return ResponseEntity.ok(Map.of("id", t.getId(), "name", t.getName()));
     }
 }
@@ -1,12 +1,12 @@
 package com.foodsharing.controller;
 
+import com.foodsharing.annotation.CurrentUser;
 import com.foodsharing.entity.User;
 import com.foodsharing.repository.UserRepository;
 import com.foodsharing.dto.UserProfileUpdateRequest;
 import com.foodsharing.dto.PasswordChangeRequest;
 import com.foodsharing.service.FileStorageService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -31,13 +31,10 @@ public class UserController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> me(Authentication authentication) {
-        if (authentication == null) {
+    public ResponseEntity<?> me(@CurrentUser User u) {
+        if (u == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
-        String username = authentication.getName();
-        User u = userRepository.findByUsername(username).orElse(null);
-        if (u == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
         Map<String, Object> userMap = new HashMap<>();
         userMap.put("id", u.getId());
         userMap.put("username", u.getUsername());
@@ -50,13 +47,10 @@ public class UserController {
     }
 
     @PutMapping("/me")
-    public ResponseEntity<?> updateMe(Authentication authentication, @RequestBody UserProfileUpdateRequest req) {
-        if (authentication == null) {
+    public ResponseEntity<?> updateMe(@CurrentUser User u, @RequestBody UserProfileUpdateRequest req) {
+        if (u == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
-        String username = authentication.getName();
-        User u = userRepository.findByUsername(username).orElse(null);
-        if (u == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
 
         if (req.getUsername() != null && !req.getUsername().equals(u.getUsername())) {
             var conflict = userRepository.findByUsername(req.getUsername());
@@ -80,13 +74,10 @@ public class UserController {
     }
 
     @PostMapping(path = "/me/avatar", consumes = {"multipart/form-data"})
-    public ResponseEntity<?> uploadAvatar(Authentication authentication, @RequestPart("file") MultipartFile file) {
-        if (authentication == null) {
+    public ResponseEntity<?> uploadAvatar(@CurrentUser User u, @RequestPart("file") MultipartFile file) {
+        if (u == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
-        String username = authentication.getName();
-        User u = userRepository.findByUsername(username).orElse(null);
-        if (u == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
         try {
             String url = fileStorageService.store(file);
             u.setAvatarUrl(url);
@@ -98,13 +89,10 @@ public class UserController {
     }
 
     @PostMapping("/me/password")
-    public ResponseEntity<?> changePassword(Authentication authentication, @RequestBody PasswordChangeRequest req) {
-        if (authentication == null) {
+    public ResponseEntity<?> changePassword(@CurrentUser User u, @RequestBody PasswordChangeRequest req) {
+        if (u == null) {
             return ResponseEntity.status(401).body(Map.of("message", "未登录"));
         }
-        String username = authentication.getName();
-        User u = userRepository.findByUsername(username).orElse(null);
-        if (u == null) return ResponseEntity.status(404).body(Map.of("message", "用户不存在"));
         if (!u.getPassword().equals(req.getOldPassword())) {
             return ResponseEntity.badRequest().body(Map.of("message", "原密码不正确"));
         }
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_parent_time", columnList = "parent_id, created_at, id"),
+        @Index(name = "idx_comments_root_path", columnList = "root_id, path")
+})
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +28,17 @@ public class Comment {
     @JoinColumn(name = "parent_id")
     private Comment parent;
 
+    // 楼层根评论ID，顶层评论为自身ID
+    @Column(name = "root_id")
+    private Long rootId;
+
+    // 物化路径：从根到自身每级ID的定长编码依次拼接，按路径排序即为楼层内的深度优先顺序
+    @Column(length = 760)
+    private String path;
+
+    // 层级，顶层评论为 0
+    private Integer depth;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -43,6 +57,15 @@ public class Comment {
     public Comment getParent() { return parent; }
     public void setParent(Comment parent) { this.parent = parent; }
 
+    public Long getRootId() { return rootId; }
+    public void setRootId(Long rootId) { this.rootId = rootId; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public Integer getDepth() { return depth; }
+    public void setDepth(Integer depth) { this.depth = depth; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
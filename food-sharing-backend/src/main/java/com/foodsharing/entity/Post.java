@@ -6,7 +6,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_status_time", columnList = "status, created_at, id"),
+        @Index(name = "idx_posts_status_views", columnList = "status, view_count, id")
+})
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -48,9 +51,19 @@ public class Post {
     @Column(name = "address", length = 255)
     private String address;
 
-    @Column(name = "view_count", nullable = false)
+    // 计数列只通过增量 UPDATE 维护，实体保存时不写回，避免覆盖并发的增量
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Long viewCount = 0L;
 
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private Long likeCount = 0L;
+
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Long commentCount = 0L;
+
+    @Column(name = "favorite_count", nullable = false, updatable = false)
+    private Long favoriteCount = 0L;
+
     @Column(name = "status", nullable = false, length = 20)
     private String status = "PENDING"; // PENDING, APPROVED, REJECTED
 
@@ -93,6 +106,15 @@ public class Post {
     public Long getViewCount() { return viewCount; }
     public void setViewCount(Long viewCount) { this.viewCount = viewCount; }
 
+    public Long getLikeCount() { return likeCount; }
+    public void setLikeCount(Long likeCount) { this.likeCount = likeCount; }
+
+    public Long getCommentCount() { return commentCount; }
+    public void setCommentCount(Long commentCount) { this.commentCount = commentCount; }
+
+    public Long getFavoriteCount() { return favoriteCount; }
+    public void setFavoriteCount(Long favoriteCount) { this.favoriteCount = favoriteCount; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,38 @@
+package com.foodsharing.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 相似内容表：每条内容保存离线计算的前 N 个相似内容，主键 (post_id, similar_post_id) 支持按内容一次范围读取
+ */
+@Entity
+@Table(name = "post_similarities")
+@IdClass(PostSimilarityId.class)
+public class PostSimilarity {
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Id
+    @Column(name = "similar_post_id")
+    private Long similarPostId;
+
+    @Column(name = "score", nullable = false)
+    private Double score = 0.0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public Long getPostId() { return postId; }
+    public void setPostId(Long postId) { this.postId = postId; }
+
+    public Long getSimilarPostId() { return similarPostId; }
+    public void setSimilarPostId(Long similarPostId) { this.similarPostId = similarPostId; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,39 @@
+package com.foodsharing.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 相似内容表的复合主键
+ */
+public class PostSimilarityId implements Serializable {
+    private Long postId;
+    private Long similarPostId;
+
+    public PostSimilarityId() {
+    }
+
+    public PostSimilarityId(Long postId, Long similarPostId) {
+        this.postId = postId;
+        this.similarPostId = similarPostId;
+    }
+
+    public Long getPostId() { return postId; }
+    public void setPostId(Long postId) { this.postId = postId; }
+
+    public Long getSimilarPostId() { return similarPostId; }
+    public void setSimilarPostId(Long similarPostId) { this.similarPostId = similarPostId; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PostSimilarityId)) return false;
+        PostSimilarityId that = (PostSimilarityId) o;
+        return Objects.equals(postId, that.postId) && Objects.equals(similarPostId, that.similarPostId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(postId, similarPostId);
+    }
+}
@@ -40,6 +40,10 @@ public class User {
     @Column(name = "enabled", nullable = false)
     private Boolean enabled = true;
 
+    // 令牌版本，写入 JWT；禁用、改角色、删除时递增，使已签发的令牌失效（只通过 UserRepository.incrementTokenVersion 修改）
+    @Column(name = "token_version", nullable = false, updatable = false)
+    private Integer tokenVersion = 0;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -69,4 +73,7 @@ public class User {
 
     public Boolean getEnabled() { return enabled; }
     public void setEnabled(Boolean enabled) { this.enabled = enabled; }
+
+    public Integer getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
 }
@@ -0,0 +1,32 @@
+package com.foodsharing.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 用户兴趣画像：分类/标签上的稀疏权重，weights 为编码后的文本（如 c12:3.5,t7:1.25）
+ * updated_at 是权重最近一次衰减到的时间点
+ */
+@Entity
+@Table(name = "user_interest_profiles")
+public class UserInterestProfile {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Lob
+    @Column(nullable = false)
+    private String weights = "";
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getWeights() { return weights; }
+    public void setWeights(String weights) { this.weights = weights; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,42 @@
+package com.foodsharing.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 用户时间线表：关注的作者发布的内容审核通过时写入每个关注者的时间线（写扩散）
+ * created_at 为内容的发布时间，按 (user_id, created_at, post_id) 游标分页
+ */
+@Entity
+@Table(name = "user_timelines", indexes = {
+        @Index(name = "idx_user_timelines_user_time", columnList = "user_id, created_at, post_id"),
+        @Index(name = "idx_user_timelines_post_id", columnList = "post_id")
+})
+@IdClass(UserTimelineId.class)
+public class UserTimeline {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getPostId() { return postId; }
+    public void setPostId(Long postId) { this.postId = postId; }
+
+    public Long getAuthorId() { return authorId; }
+    public void setAuthorId(Long authorId) { this.authorId = authorId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
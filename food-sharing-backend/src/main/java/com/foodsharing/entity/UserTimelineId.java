@@ -0,0 +1,39 @@
+package com.foodsharing.entity;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 用户时间线表的复合主键
+ */
+public class UserTimelineId implements Serializable {
+    private Long userId;
+    private Long postId;
+
+    public UserTimelineId() {
+    }
+
+    public UserTimelineId(Long userId, Long postId) {
+        this.userId = userId;
+        this.postId = postId;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getPostId() { return postId; }
+    public void setPostId(Long postId) { this.postId = postId; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserTimelineId)) return false;
+        UserTimelineId that = (UserTimelineId) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(postId, that.postId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, postId);
+    }
+}
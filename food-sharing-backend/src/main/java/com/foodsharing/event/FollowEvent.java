@@ -0,0 +1,23 @@
+package com.foodsharing.event;
+
+/**
+ * 关注关系变更事件：关注或取消关注时发布
+ */
+public class FollowEvent {
+
+    private final Long followerId;
+    private final Long followingId;
+    private final boolean followed;
+
+    public FollowEvent(Long followerId, Long followingId, boolean followed) {
+        this.followerId = followerId;
+        this.followingId = followingId;
+        this.followed = followed;
+    }
+
+    public Long getFollowerId() { return followerId; }
+
+    public Long getFollowingId() { return followingId; }
+
+    public boolean isFollowed() { return followed; }
+}
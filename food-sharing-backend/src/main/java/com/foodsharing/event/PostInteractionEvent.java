@@ -0,0 +1,31 @@
+package com.foodsharing.event;
+
+/**
+ * 内容互动事件：浏览、点赞、评论、收藏发生变化时发布
+ */
+public class PostInteractionEvent {
+
+    public enum Type { VIEW, LIKE, COMMENT, FAVORITE }
+
+    private final Long postId;
+    private final Long userId;
+    private final Type type;
+    private final int delta;
+
+    public PostInteractionEvent(Long postId, Long userId, Type type, int delta) {
+        this.postId = postId;
+        this.userId = userId;
+        this.type = type;
+        this.delta = delta;
+    }
+
+    public Long getPostId() { return postId; }
+
+    /** 匿名浏览时为 null */
+    public Long getUserId() { return userId; }
+
+    public Type getType() { return type; }
+
+    /** +1 表示新增，-1 表示取消/删除 */
+    public int getDelta() { return delta; }
+}
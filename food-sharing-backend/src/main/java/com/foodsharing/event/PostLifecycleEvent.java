@@ -0,0 +1,23 @@
+package com.foodsharing.event;
+
+import com.foodsharing.entity.Post;
+
+/**
+ * 内容生命周期事件：发布、审核通过、审核拒绝、删除时发布
+ */
+public class PostLifecycleEvent {
+
+    public enum Action { CREATED, APPROVED, REJECTED, DELETED }
+
+    private final Post post;
+    private final Action action;
+
+    public PostLifecycleEvent(Post post, Action action) {
+        this.post = post;
+        this.action = action;
+    }
+
+    public Post getPost() { return post; }
+
+    public Action getAction() { return action; }
+}
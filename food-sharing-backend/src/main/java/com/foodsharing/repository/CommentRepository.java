@@ -5,18 +5,90 @@ import com.foodsharing.entity.Post;
 import com.foodsharing.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "user")
     Page<Comment> findByPostAndParentIsNullOrderByCreatedAtDesc(Post post, Pageable pageable);
     
+    @EntityGraph(attributePaths = "user")
+    List<Comment> findByIdIn(Collection<Long> ids);
+    
+    /**
+     * 每条评论最早的 :limit 条回复，返回 (id, parentId, 该评论的回复总数)，按评论、回复时间排序
+     */
+    @Query(value = "SELECT r.id, r.parent_id, r.total FROM (" +
+            "SELECT c.id, c.parent_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.parent_id ORDER BY c.created_at, c.id) AS rn, " +
+            "COUNT(*) OVER (PARTITION BY c.parent_id) AS total " +
+            "FROM comments c WHERE c.parent_id IN (:parentIds)" +
+            ") r WHERE r.rn <= :limit ORDER BY r.parent_id, r.rn", nativeQuery = true)
+    List<Object[]> findReplyPreviews(@Param("parentIds") Collection<Long> parentIds, @Param("limit") int limit);
+    
+    /**
+     * 游标之后的回复，按 (createdAt, id) 正序
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT c FROM Comment c WHERE c.parent.id = :parentId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt ASC, c.id ASC")
+    List<Comment> findRepliesAfter(@Param("parentId") Long parentId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+    
     List<Comment> findByParentOrderByCreatedAtAsc(Comment parent);
     
     List<Comment> findByUser(User user);
     
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.post = :post")
     long countByPost(Post post);
+
+    /**
+     * 评论及其所有下级回复的条数（删除评论时级联删除的数量），按物化路径前缀在 (root_id, path) 索引上范围统计
+     */
+    @Query("SELECT COUNT(c) FROM Comment c WHERE c.rootId = :rootId AND c.path LIKE CONCAT(:path, '%')")
+    long countSubtree(@Param("rootId") Long rootId, @Param("path") String path);
+
+    /**
+     * 子树中路径在 :afterPath 之后的评论（含子树根自身），按路径即深度优先顺序
+     */
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT c FROM Comment c WHERE c.rootId = :rootId AND c.path LIKE CONCAT(:path, '%') " +
+           "AND c.path > :afterPath ORDER BY c.path ASC")
+    List<Comment> findSubtreeAfter(@Param("rootId") Long rootId,
+                                   @Param("path") String path,
+                                   @Param("afterPath") String afterPath,
+                                   Pageable pageable);
+
+    boolean existsByPathIsNull();
+
+    /**
+     * 为缺少物化路径的评论补齐 root_id、path、depth（由 parent_id 递归推导），返回更新行数
+     */
+    @Modifying
+    @Query(value = "UPDATE comments c JOIN (" +
+            "WITH RECURSIVE tree (id, root_id, path, depth) AS (" +
+            "SELECT id, id, CAST(LPAD(CONV(id, 10, 36), 8, '0') AS CHAR(760)), 0 FROM comments WHERE parent_id IS NULL " +
+            "UNION ALL SELECT r.id, t.root_id, CONCAT(t.path, LPAD(CONV(r.id, 10, 36), 8, '0')), t.depth + 1 " +
+            "FROM comments r JOIN tree t ON r.parent_id = t.id" +
+            ") SELECT id, root_id, path, depth FROM tree" +
+            ") x ON c.id = x.id " +
+            "SET c.root_id = x.root_id, c.path = x.path, c.depth = x.depth " +
+            "WHERE c.path IS NULL", nativeQuery = true)
+    int backfillPaths();
+    
+    @Query("SELECT c.post.id FROM Comment c WHERE c.user.id = :userId ORDER BY c.createdAt DESC")
+    List<Long> findRecentPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT c.post.id, c.createdAt FROM Comment c WHERE c.createdAt >= :since")
+    List<Object[]> findPostActivitySince(@Param("since") LocalDateTime since);
 }
@@ -6,8 +6,12 @@ import com.foodsharing.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,10 +22,33 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     
     void deleteByUserAndPost(User user, Post post);
     
+    /**
+     * 收藏，已存在（唯一键 uk_favorites_user_post）或内容不存在时忽略，返回插入的行数
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO favorites (user_id, post_id, created_at) VALUES (:userId, :postId, NOW())", nativeQuery = true)
+    int insertIgnore(@Param("userId") Long userId, @Param("postId") Long postId);
+    
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.user.id = :userId AND f.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+    
     Page<Favorite> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
     
     List<Favorite> findByUser(User user);
     
     @Query("SELECT COUNT(f) FROM Favorite f WHERE f.post = :post")
     long countByPost(Post post);
+    
+    /**
+     * 给定内容中该用户已收藏的内容ID
+     */
+    @Query("SELECT f.post.id FROM Favorite f WHERE f.user.id = :userId AND f.post.id IN :postIds")
+    List<Long> findFavoritedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+    
+    @Query("SELECT f.post.id FROM Favorite f WHERE f.user.id = :userId ORDER BY f.createdAt DESC")
+    List<Long> findRecentPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT f.post.id, f.createdAt FROM Favorite f WHERE f.createdAt >= :since")
+    List<Object[]> findPostActivitySince(@Param("since") LocalDateTime since);
 }
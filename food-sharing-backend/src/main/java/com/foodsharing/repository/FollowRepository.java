@@ -5,8 +5,11 @@ import com.foodsharing.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +20,17 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     
     void deleteByFollowerAndFollowing(User follower, User following);
     
+    /**
+     * 关注，已存在（唯一键 uk_follows_follower_following）或用户不存在时忽略，返回插入的行数
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO follows (follower_id, following_id, created_at) VALUES (:followerId, :followingId, NOW())", nativeQuery = true)
+    int insertIgnore(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+    
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.following.id = :followingId")
+    int deleteByFollowerIdAndFollowingId(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+    
     Page<Follow> findByFollowerOrderByCreatedAtDesc(User follower, Pageable pageable);
     
     Page<Follow> findByFollowingOrderByCreatedAtDesc(User following, Pageable pageable);
@@ -28,4 +42,13 @@ public interface FollowRepository extends JpaRepository<Follow, Long> {
     
     @Query("SELECT COUNT(f) FROM Follow f WHERE f.follower = :user")
     long countFollowing(User user);
+    
+    @Query("SELECT COUNT(f) FROM Follow f WHERE f.following.id = :userId")
+    long countFollowersByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT f.following.id FROM Follow f GROUP BY f.following.id HAVING COUNT(f) > :threshold")
+    List<Long> findUserIdsWithFollowersMoreThan(@Param("threshold") long threshold);
+    
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId AND f.following.id IN :userIds")
+    List<Long> findFollowingIdsIn(@Param("userId") Long userId, @Param("userIds") Collection<Long> userIds);
 }
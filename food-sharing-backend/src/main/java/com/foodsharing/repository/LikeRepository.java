@@ -3,9 +3,14 @@ package com.foodsharing.repository;
 import com.foodsharing.entity.Like;
 import com.foodsharing.entity.Post;
 import com.foodsharing.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +21,31 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     
     void deleteByUserAndPost(User user, Post post);
     
+    /**
+     * 点赞，已存在（唯一键 uk_likes_user_post）或内容不存在时忽略，返回插入的行数
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO likes (user_id, post_id, created_at) VALUES (:userId, :postId, NOW())", nativeQuery = true)
+    int insertIgnore(@Param("userId") Long userId, @Param("postId") Long postId);
+    
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.user.id = :userId AND l.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+    
     List<Like> findByUser(User user);
     
     @Query("SELECT COUNT(l) FROM Like l WHERE l.post = :post")
     long countByPost(Post post);
+    
+    /**
+     * 给定内容中该用户已点赞的内容ID
+     */
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+    
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId ORDER BY l.createdAt DESC")
+    List<Long> findRecentPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT l.post.id, l.createdAt FROM Like l WHERE l.createdAt >= :since")
+    List<Object[]> findPostActivitySince(@Param("since") LocalDateTime since);
 }
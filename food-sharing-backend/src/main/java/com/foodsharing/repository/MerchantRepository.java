@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -28,5 +29,11 @@ public interface MerchantRepository extends JpaRepository<Merchant, Long>, JpaSp
     
     @Query("SELECT m FROM Merchant m WHERE m.status = 1 ORDER BY m.rating DESC, m.reviewCount DESC")
     Page<Merchant> findTopRatedMerchants(Pageable pageable);
+    
+    /**
+     * 营业中商家的 (id, name, reviewCount)，用于构建搜索联想
+     */
+    @Query("SELECT m.id, m.name, m.reviewCount FROM Merchant m WHERE m.status = 1")
+    List<Object[]> findActiveNames();
 }
 
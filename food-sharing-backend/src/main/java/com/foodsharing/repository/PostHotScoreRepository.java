@@ -0,0 +1,75 @@
+package com.foodsharing.repository;
+
+import com.foodsharing.entity.PostHotScore;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostHotScoreRepository extends JpaRepository<PostHotScore, Long> {
+
+    // 热度分数：浏览量*1 + 点赞*10 + 评论*5 + 收藏*8
+    String SCORE_EXPR = "view_count * 1 + like_count * 10 + comment_count * 5 + favorite_count * 8";
+
+    @Query("SELECT h.postId FROM PostHotScore h ORDER BY h.score DESC, h.postId DESC")
+    List<Long> findTopPostIds(Pageable pageable);
+
+    /**
+     * 增量更新计数并重算分数（MySQL 按列顺序求值，score 使用本行已写入/更新后的计数）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_hot_scores " +
+            "(post_id, view_count, like_count, comment_count, favorite_count, score, updated_at) " +
+            "VALUES (:postId, GREATEST(:views, 0), GREATEST(:likes, 0), GREATEST(:comments, 0), GREATEST(:favorites, 0), " +
+            SCORE_EXPR + ", NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "view_count = GREATEST(view_count + :views, 0), " +
+            "like_count = GREATEST(like_count + :likes, 0), " +
+            "comment_count = GREATEST(comment_count + :comments, 0), " +
+            "favorite_count = GREATEST(favorite_count + :favorites, 0), " +
+            "score = " + SCORE_EXPR + ", " +
+            "updated_at = NOW()", nativeQuery = true)
+    int increment(@Param("postId") Long postId,
+                  @Param("views") long views,
+                  @Param("likes") long likes,
+                  @Param("comments") long comments,
+                  @Param("favorites") long favorites);
+
+    /**
+     * 批量累加浏览量并重算分数（浏览量由 ViewCountService 定期合并写入）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_hot_scores " +
+            "(post_id, view_count, like_count, comment_count, favorite_count, score, updated_at) " +
+            "SELECT src.id, :views, 0, 0, 0, :views, NOW() FROM (SELECT id FROM posts WHERE id IN :postIds) src " +
+            "ON DUPLICATE KEY UPDATE " +
+            "view_count = view_count + :views, " +
+            "score = " + SCORE_EXPR + ", " +
+            "updated_at = NOW()", nativeQuery = true)
+    int incrementViews(@Param("postIds") Collection<Long> postIds, @Param("views") long views);
+
+    /**
+     * 从源表全量重建计数（用于初始化和修正漂移）
+     */
+    @Modifying
+    @Query(value = "INSERT INTO post_hot_scores " +
+            "(post_id, view_count, like_count, comment_count, favorite_count, score, updated_at) " +
+            "SELECT p.id, p.view_count, " +
+            "(SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id), " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id), " +
+            "(SELECT COUNT(*) FROM favorites f WHERE f.post_id = p.id), " +
+            "0, NOW() FROM posts p " +
+            "ON DUPLICATE KEY UPDATE " +
+            "view_count = VALUES(view_count), like_count = VALUES(like_count), " +
+            "comment_count = VALUES(comment_count), favorite_count = VALUES(favorite_count), " +
+            "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int rebuildCounts();
+
+    @Modifying
+    @Query(value = "UPDATE post_hot_scores SET score = " + SCORE_EXPR, nativeQuery = true)
+    int rebuildScores();
+}
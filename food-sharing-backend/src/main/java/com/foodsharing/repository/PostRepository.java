@@ -3,15 +3,144 @@ package com.foodsharing.repository;
 import com.foodsharing.entity.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
-    @Query("SELECT p FROM Post p WHERE p.author.id IN :userIds")
-    Page<Post> findByAuthorIdIn(Set<Long> userIds, Pageable pageable);
-    
     Page<Post> findByStatus(String status, Pageable pageable);
+
+    /**
+     * 一次性读取一批内容的分类ID和标签ID（每行 postId, categoryId, tagId，后两列可能为 null）
+     */
+    @Query("SELECT p.id, c.id, t.id FROM Post p LEFT JOIN p.category c LEFT JOIN p.tags t WHERE p.id IN :postIds")
+    List<Object[]> findPostFeatures(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * 给定作者在游标之前发布的已审核通过内容，返回 (id, createdAt)，按 (createdAt, id) 倒序
+     */
+    @Query("SELECT p.id, p.createdAt FROM Post p WHERE p.author.id IN :authorIds AND p.status = 'APPROVED' " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :postId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Object[]> findApprovedByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("postId") Long postId,
+                                               Pageable pageable);
+
+    /**
+     * 属于给定分类或带有给定标签的内容ID（按浏览量倒序）
+     */
+    @Query("SELECT p.id FROM Post p WHERE p.category.id IN :categoryIds OR p.id IN " +
+           "(SELECT pt.id FROM Post pt JOIN pt.tags t WHERE t.id IN :tagIds) ORDER BY p.viewCount DESC, p.createdAt DESC")
+    List<Long> findInterestCandidateIds(@Param("categoryIds") Collection<Long> categoryIds,
+                                        @Param("tagIds") Collection<Long> tagIds,
+                                        Pageable pageable);
+
+    /**
+     * 热门内容ID（按浏览量倒序）
+     */
+    @Query("SELECT p.id FROM Post p ORDER BY p.viewCount DESC, p.createdAt DESC")
+    List<Long> findPopularCandidateIds(Pageable pageable);
+
+    /**
+     * 按ID批量加载内容，同时抓取分类和作者，避免渲染时逐条懒加载
+     */
+    @EntityGraph(attributePaths = {"category", "author"})
+    List<Post> findByIdIn(Collection<Long> ids);
+
+    /**
+     * 按ID分批读取已审核通过的内容ID
+     */
+    @Query("SELECT p.id FROM Post p WHERE p.status = 'APPROVED' AND p.id > :afterId ORDER BY p.id")
+    List<Long> findApprovedIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按ID分批读取已审核通过且带坐标的内容（id, lat, lng），用于构建地理索引
+     */
+    @Query("SELECT p.id, p.lat, p.lng FROM Post p WHERE p.status = 'APPROVED' " +
+           "AND p.lat IS NOT NULL AND p.lng IS NOT NULL AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findApprovedGeoPointsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按ID分批读取已审核通过内容的 (id, title, content)，用于构建全文索引
+     */
+    @Query("SELECT p.id, p.title, p.content FROM Post p WHERE p.status = 'APPROVED' AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findApprovedTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 批量累加浏览量，增量相同的内容合并为一条语句
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.viewCount = p.viewCount + :delta WHERE p.id IN :postIds")
+    int incrementViewCounts(@Param("postIds") Collection<Long> postIds, @Param("delta") long delta);
+
+    /**
+     * 互动计数增减，与点赞、评论、收藏的写入在同一事务内执行
+     */
+    @Modifying
+    @Query(value = "UPDATE posts SET like_count = GREATEST(like_count + :delta, 0) WHERE id = :postId", nativeQuery = true)
+    int incrementLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE posts SET comment_count = GREATEST(comment_count + :delta, 0) WHERE id = :postId", nativeQuery = true)
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE posts SET favorite_count = GREATEST(favorite_count + :delta, 0) WHERE id = :postId", nativeQuery = true)
+    int incrementFavoriteCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findLikeCount(@Param("postId") Long postId);
+
+    @Query("SELECT p.favoriteCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findFavoriteCount(@Param("postId") Long postId);
+
+    /**
+     * 批量读取互动计数 (id, likeCount, commentCount, favoriteCount)
+     */
+    @Query("SELECT p.id, p.likeCount, p.commentCount, p.favoriteCount FROM Post p WHERE p.id IN :postIds")
+    List<Object[]> findEngagementCounts(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * 按源表重算互动计数，只更新有偏差的行
+     */
+    @Modifying
+    @Query(value = "UPDATE posts p " +
+            "LEFT JOIN (SELECT post_id, COUNT(*) AS cnt FROM likes GROUP BY post_id) l ON l.post_id = p.id " +
+            "LEFT JOIN (SELECT post_id, COUNT(*) AS cnt FROM comments GROUP BY post_id) c ON c.post_id = p.id " +
+            "LEFT JOIN (SELECT post_id, COUNT(*) AS cnt FROM favorites GROUP BY post_id) f ON f.post_id = p.id " +
+            "SET p.like_count = COALESCE(l.cnt, 0), " +
+            "p.comment_count = COALESCE(c.cnt, 0), " +
+            "p.favorite_count = COALESCE(f.cnt, 0) " +
+            "WHERE p.like_count <> COALESCE(l.cnt, 0) " +
+            "OR p.comment_count <> COALESCE(c.cnt, 0) " +
+            "OR p.favorite_count <> COALESCE(f.cnt, 0)",
+            nativeQuery = true)
+    int reconcileEngagementCounts();
+
+    /**
+     * 按ID分批读取已审核通过内容的 (id, title, viewCount)，用于构建搜索联想
+     */
+    @Query("SELECT p.id, p.title, p.viewCount FROM Post p WHERE p.status = 'APPROVED' AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findApprovedTitlesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 各标签下已审核通过的内容数 (tagId, count)
+     */
+    @Query("SELECT t.id, COUNT(p.id) FROM Post p JOIN p.tags t WHERE p.status = 'APPROVED' GROUP BY t.id")
+    List<Object[]> countApprovedPostsByTag();
+
+    /**
+     * 各分类下已审核通过的内容数 (categoryId, count)
+     */
+    @Query("SELECT p.category.id, COUNT(p.id) FROM Post p WHERE p.status = 'APPROVED' AND p.category IS NOT NULL GROUP BY p.category.id")
+    List<Object[]> countApprovedPostsByCategory();
 }
@@ -0,0 +1,83 @@
+package com.foodsharing.repository;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.entity.PostSimilarity;
+import com.foodsharing.entity.PostSimilarityId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PostSimilarityRepository extends JpaRepository<PostSimilarity, PostSimilarityId> {
+
+    // 与内容 :postId 有过点赞、收藏或评论的用户
+    String ENGAGED_USERS =
+            "SELECT user_id FROM likes WHERE post_id = :postId " +
+            "UNION SELECT user_id FROM favorites WHERE post_id = :postId " +
+            "UNION SELECT user_id FROM comments WHERE post_id = :postId";
+
+    /**
+     * 读取相似内容（主键前缀范围读取，只返回仍为审核通过状态的内容）
+     */
+    @Query("SELECT p FROM PostSimilarity s JOIN Post p ON p.id = s.similarPostId " +
+           "WHERE s.postId = :postId AND p.status = 'APPROVED' ORDER BY s.score DESC")
+    List<Post> findSimilarPosts(@Param("postId") Long postId, Pageable pageable);
+
+    /**
+     * 共同互动：与 :postId 互动过的用户还互动过哪些内容，返回 (postId, 共同用户数)
+     */
+    @Query(value = "SELECT e.post_id, COUNT(DISTINCT e.user_id) AS co_users FROM (" +
+            "SELECT user_id, post_id FROM likes WHERE user_id IN (" + ENGAGED_USERS + ") " +
+            "UNION ALL SELECT user_id, post_id FROM favorites WHERE user_id IN (" + ENGAGED_USERS + ") " +
+            "UNION ALL SELECT user_id, post_id FROM comments WHERE user_id IN (" + ENGAGED_USERS + ")" +
+            ") e JOIN posts p ON p.id = e.post_id AND p.status = 'APPROVED' " +
+            "WHERE e.post_id <> :postId GROUP BY e.post_id ORDER BY co_users DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findCoEngagedPosts(@Param("postId") Long postId, @Param("limit") int limit);
+
+    /**
+     * 标签重合：与 :postId 共享标签最多的内容，返回 (postId, 共享标签数)
+     */
+    @Query(value = "SELECT pt2.post_id, COUNT(*) AS shared FROM post_tags pt1 " +
+            "JOIN post_tags pt2 ON pt2.tag_id = pt1.tag_id AND pt2.post_id <> pt1.post_id " +
+            "JOIN posts p ON p.id = pt2.post_id AND p.status = 'APPROVED' " +
+            "WHERE pt1.post_id = :postId GROUP BY pt2.post_id ORDER BY shared DESC, pt2.post_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findTagOverlapPosts(@Param("postId") Long postId, @Param("limit") int limit);
+
+    /**
+     * 每条内容的互动用户数，返回 (postId, 用户数)
+     */
+    @Query(value = "SELECT e.post_id, COUNT(DISTINCT e.user_id) FROM (" +
+            "SELECT user_id, post_id FROM likes WHERE post_id IN :postIds " +
+            "UNION ALL SELECT user_id, post_id FROM favorites WHERE post_id IN :postIds " +
+            "UNION ALL SELECT user_id, post_id FROM comments WHERE post_id IN :postIds" +
+            ") e GROUP BY e.post_id",
+            nativeQuery = true)
+    List<Object[]> countEngagedUsers(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * 自 :since 以来有新互动或新发布的内容ID
+     */
+    @Query(value = "SELECT post_id FROM likes WHERE created_at >= :since " +
+            "UNION SELECT post_id FROM favorites WHERE created_at >= :since " +
+            "UNION SELECT post_id FROM comments WHERE created_at >= :since " +
+            "UNION SELECT id FROM posts WHERE created_at >= :since",
+            nativeQuery = true)
+    List<Long> findPostIdsChangedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM PostSimilarity s WHERE s.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query(value = "INSERT INTO post_similarities (post_id, similar_post_id, score, updated_at) " +
+            "VALUES (:postId, :similarPostId, :score, NOW())",
+            nativeQuery = true)
+    int insert(@Param("postId") Long postId, @Param("similarPostId") Long similarPostId, @Param("score") double score);
+}
@@ -0,0 +1,7 @@
+package com.foodsharing.repository;
+
+import com.foodsharing.entity.UserInterestProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserInterestProfileRepository extends JpaRepository<UserInterestProfile, Long> {
+}
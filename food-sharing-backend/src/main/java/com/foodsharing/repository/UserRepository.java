@@ -2,7 +2,11 @@ package com.foodsharing.repository;
 
 import com.foodsharing.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,4 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     long countByEnabled(Boolean enabled);
     long countByRole(String role);
+
+    /**
+     * 令牌校验所需的状态，返回 (tokenVersion, enabled)，用户不存在时为空
+     */
+    @Query("SELECT u.tokenVersion, u.enabled FROM User u WHERE u.id = :id")
+    List<Object[]> findTokenState(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
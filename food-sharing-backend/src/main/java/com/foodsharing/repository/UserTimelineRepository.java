@@ -0,0 +1,75 @@
+package com.foodsharing.repository;
+
+import com.foodsharing.entity.UserTimeline;
+import com.foodsharing.entity.UserTimelineId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserTimelineRepository extends JpaRepository<UserTimeline, UserTimelineId> {
+
+    /**
+     * 游标之前的时间线条目，返回 (postId, createdAt)，按 (createdAt, postId) 倒序
+     */
+    @Query("SELECT t.postId, t.createdAt FROM UserTimeline t WHERE t.userId = :userId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.postId < :postId)) " +
+           "ORDER BY t.createdAt DESC, t.postId DESC")
+    List<Object[]> findBefore(@Param("userId") Long userId,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("postId") Long postId,
+                              Pageable pageable);
+
+    /**
+     * 写扩散：把一条内容写入作者所有关注者的时间线
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_timelines (user_id, post_id, author_id, created_at) " +
+            "SELECT f.follower_id, :postId, :authorId, :createdAt FROM follows f WHERE f.following_id = :authorId",
+            nativeQuery = true)
+    int fanOut(@Param("postId") Long postId, @Param("authorId") Long authorId, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * 新关注时把作者最近的内容补进关注者的时间线
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_timelines (user_id, post_id, author_id, created_at) " +
+            "SELECT :userId, p.id, p.author_id, p.created_at FROM posts p " +
+            "WHERE p.author_id = :authorId AND p.status = 'APPROVED' ORDER BY p.created_at DESC LIMIT :limit",
+            nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    /**
+     * 从所有关注关系全量生成时间线（仅用于初始化）
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO user_timelines (user_id, post_id, author_id, created_at) " +
+            "SELECT f.follower_id, p.id, p.author_id, p.created_at FROM follows f " +
+            "JOIN posts p ON p.author_id = f.following_id AND p.status = 'APPROVED'",
+            nativeQuery = true)
+    int rebuildAll();
+
+    /**
+     * 每个用户只保留最近 :maxSize 条
+     */
+    @Modifying
+    @Query(value = "DELETE t FROM user_timelines t JOIN (" +
+            "SELECT user_id, post_id FROM (" +
+            "SELECT user_id, post_id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY created_at DESC, post_id DESC) AS rn " +
+            "FROM user_timelines) ranked WHERE rn > :maxSize" +
+            ") old ON old.user_id = t.user_id AND old.post_id = t.post_id",
+            nativeQuery = true)
+    int trim(@Param("maxSize") int maxSize);
+
+    @Modifying
+    @Query("DELETE FROM UserTimeline t WHERE t.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM UserTimeline t WHERE t.userId = :userId AND t.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+}
@@ -0,0 +1,141 @@
+package com.foodsharing.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内限流存储（默认）：每个键只保存一个“理论到达时间”（TAT，微秒），
+ * 每次请求用 CAS 推进一个发放间隔，无锁且没有窗口边界突发。
+ * TAT 不晚于当前时间的键等价于满桶，可以随时移除；键数量有上限，超过时先清理满桶的键，
+ * 仍然超过时新键共用同一溢出桶（扫描流量整体受限，不会无限占用内存）
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final String OVERFLOW_KEY = "overflow";
+    // 键数超限时请求线程上的清理最多每秒一次，其余请求直接进入溢出桶
+    private static final long INLINE_SWEEP_MICROS = 1_000_000;
+
+    private final int maxKeys;
+    private final long sweepMicros;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    public InMemoryRateLimitStore(int maxKeys, long sweepMillis) {
+        this.maxKeys = maxKeys;
+        this.sweepMicros = sweepMillis * 1000;
+    }
+
+    @Override
+    public RateLimiter.Decision acquire(String key, int limit, long intervalMicros, long nowMicros) {
+        Bucket bucket = bucket(key, limit, intervalMicros, nowMicros);
+        long burst = bucket.burstMicros();
+        while (true) {
+            long current = bucket.tat.get();
+            long next = Math.max(current, nowMicros) + intervalMicros;
+            long allowAt = next - burst;
+            if (allowAt > nowMicros) {
+                return new RateLimiter.Decision(false, limit, 0, allowAt - nowMicros, current - nowMicros);
+            }
+            if (bucket.tat.compareAndSet(current, next)) {
+                bucket.granted.incrementAndGet();
+                int remaining = (int) Math.min(limit, (nowMicros + burst - next) / intervalMicros);
+                return new RateLimiter.Decision(true, limit, remaining, 0, next - nowMicros);
+            }
+        }
+    }
+
+    @Override
+    public void maintain(long nowMicros) {
+        if (nowMicros - lastSweep.get() >= sweepMicros) {
+            sweep(nowMicros);
+        }
+    }
+
+    @Override
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * 移除已回满的桶
+     */
+    protected void sweep(long nowMicros) {
+        lastSweep.set(nowMicros);
+        buckets.values().removeIf(b -> isRemovable(b, nowMicros));
+    }
+
+    protected boolean isRemovable(Bucket bucket, long nowMicros) {
+        return bucket.tat.get() <= nowMicros;
+    }
+
+    protected Map<String, Bucket> buckets() {
+        return buckets;
+    }
+
+    private Bucket bucket(String key, int limit, long intervalMicros, long nowMicros) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            long last = lastSweep.get();
+            if (nowMicros - last >= INLINE_SWEEP_MICROS && lastSweep.compareAndSet(last, nowMicros)) {
+                sweep(nowMicros);
+            }
+            if (buckets.size() >= maxKeys) {
+                // 溢出桶按规则区分（键的前缀为规则ID）
+                String overflow = key.substring(0, key.indexOf(':') + 1) + OVERFLOW_KEY;
+                return buckets.computeIfAbsent(overflow, k -> new Bucket(limit, intervalMicros, nowMicros));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(limit, intervalMicros, nowMicros));
+    }
+
+    protected static final class Bucket {
+        final AtomicLong tat;
+        final int limit;
+        final long intervalMicros;
+        // 本机放行的请求累计数，以及其中已写入共享存储的部分（只由同步线程修改）
+        final AtomicLong granted = new AtomicLong();
+        volatile long synced;
+        // 上次同步时读到的集群累计数，-1 表示尚未读到（只由同步线程读写）
+        volatile long lastTotal = -1;
+
+        Bucket(int limit, long intervalMicros, long nowMicros) {
+            this.limit = limit;
+            this.intervalMicros = intervalMicros;
+            this.tat = new AtomicLong(nowMicros);
+        }
+
+        long burstMicros() {
+            return intervalMicros * limit;
+        }
+
+        /**
+         * 计入其他节点放行的请求，最多扣到桶空
+         */
+        void charge(long permits, long nowMicros) {
+            while (true) {
+                long current = tat.get();
+                long next = Math.min(Math.max(current, nowMicros) + permits * intervalMicros, nowMicros + burstMicros());
+                if (next <= current || tat.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 把 TAT 推进到共享存储中的集群 TAT（不回退，最多扣到桶空）
+         */
+        void advanceTo(long sharedTat, long nowMicros) {
+            long target = Math.min(sharedTat, nowMicros + burstMicros());
+            while (true) {
+                long current = tat.get();
+                if (target <= current || tat.compareAndSet(current, target)) {
+                    return;
+                }
+            }
+        }
+    }
+}
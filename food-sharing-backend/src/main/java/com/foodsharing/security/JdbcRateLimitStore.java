@@ -0,0 +1,135 @@
+package com.foodsharing.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+/**
+ * 集群共享的限流存储：放行判断仍在本机内存中完成（请求路径上没有远程调用），
+ * 每个同步周期把本机各键新放行的请求数批量累加到 MySQL 的 rate_limit_counters，
+ * 同时写入本机的 TAT（取各节点中的最大值），再读回活跃键的集群累计数，把其他节点放行的部分计入本机的桶。
+ * 本机首次读到某个键（或空闲后重新活跃）时没有累计数基线，改为直接采用共享的 TAT，
+ * 新节点不会从满桶开始。集群整体限额的误差约为一个同步周期内其他节点的放行量；
+ * 各节点的时钟需要同步，限流规则配置需要一致（键以规则序号为前缀）
+ */
+public class JdbcRateLimitStore extends InMemoryRateLimitStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcRateLimitStore.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS rate_limit_counters (" +
+            "bucket_key varchar(191) NOT NULL, " +
+            "permits bigint NOT NULL, " +
+            "tat bigint NOT NULL DEFAULT 0, " +
+            "updated_at datetime NOT NULL, " +
+            "PRIMARY KEY (bucket_key), " +
+            "KEY idx_rate_limit_counters_updated (updated_at)" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4";
+
+    private static final String UPSERT = "INSERT INTO rate_limit_counters (bucket_key, permits, tat, updated_at) " +
+            "VALUES (?, ?, ?, NOW()) " +
+            "ON DUPLICATE KEY UPDATE permits = permits + VALUES(permits), " +
+            "tat = GREATEST(tat, VALUES(tat)), updated_at = NOW()";
+
+    // 一天未更新的计数行视为废弃
+    private static final String PURGE = "DELETE FROM rate_limit_counters " +
+            "WHERE updated_at < NOW() - INTERVAL 1 DAY LIMIT 10000";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long purgeMicros;
+    // 只由 maintain 读写
+    private long lastPurge;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, int maxKeys, long sweepMillis) {
+        super(maxKeys, sweepMillis);
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeMicros = sweepMillis * 1000;
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public synchronized void maintain(long nowMicros) {
+        try {
+            sync(nowMicros);
+        } catch (DataAccessException e) {
+            // 同步失败时各节点退化为独立限流，下个周期重试
+            buckets().values().forEach(b -> b.lastTotal = -1);
+            logger.warn("Failed to sync rate limit counters, will retry", e);
+        }
+        super.maintain(nowMicros);
+        // 清理废弃计数行只在维护线程上进行，请求路径（包括键数超限时的清理）不访问数据库
+        if (nowMicros - lastPurge >= purgeMicros) {
+            lastPurge = nowMicros;
+            try {
+                jdbcTemplate.update(PURGE);
+            } catch (DataAccessException e) {
+                logger.warn("Failed to purge stale rate limit counters", e);
+            }
+        }
+    }
+
+    /**
+     * 还有计数未写入共享存储的桶要保留到下次同步
+     */
+    @Override
+    protected boolean isRemovable(Bucket bucket, long nowMicros) {
+        return super.isRemovable(bucket, nowMicros) && bucket.granted.get() == bucket.synced;
+    }
+
+    private void sync(long nowMicros) {
+        // 1. 写入本机增量
+        Map<String, Long> pushed = new HashMap<>();
+        Map<Bucket, Long> grantedSnapshot = new HashMap<>();
+        List<Object[]> args = new ArrayList<>();
+        List<String> activeKeys = new ArrayList<>();
+        for (Map.Entry<String, Bucket> e : buckets().entrySet()) {
+            Bucket bucket = e.getValue();
+            long granted = bucket.granted.get();
+            long delta = granted - bucket.synced;
+            if (delta > 0) {
+                args.add(new Object[]{e.getKey(), delta, bucket.tat.get()});
+                pushed.put(e.getKey(), delta);
+                grantedSnapshot.put(bucket, granted);
+            }
+            if (delta > 0 || bucket.tat.get() > nowMicros) {
+                activeKeys.add(e.getKey());
+            } else {
+                // 本机空闲的键不读取，下次活跃时重新建立基线
+                bucket.lastTotal = -1;
+            }
+        }
+        for (int i = 0; i < args.size(); i += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(UPSERT, args.subList(i, Math.min(args.size(), i + BATCH_SIZE)));
+        }
+        grantedSnapshot.forEach((bucket, granted) -> bucket.synced = granted);
+
+        // 2. 读取集群累计数，计入其他节点的放行量
+        for (int i = 0; i < activeKeys.size(); i += BATCH_SIZE) {
+            List<String> batch = activeKeys.subList(i, Math.min(activeKeys.size(), i + BATCH_SIZE));
+            String sql = "SELECT bucket_key, permits, tat FROM rate_limit_counters WHERE bucket_key IN (" +
+                    String.join(",", Collections.nCopies(batch.size(), "?")) + ")";
+            jdbcTemplate.query(sql, rs -> {
+                String key = rs.getString(1);
+                long total = rs.getLong(2);
+                Bucket bucket = buckets().get(key);
+                if (bucket == null) {
+                    return;
+                }
+                if (bucket.lastTotal >= 0) {
+                    long foreign = total - bucket.lastTotal - pushed.getOrDefault(key, 0L);
+                    if (foreign > 0) {
+                        bucket.charge(foreign, nowMicros);
+                    }
+                } else {
+                    // 没有基线时无法区分哪些放行发生在当前周期，采用集群 TAT（已包含本机刚写入的部分）
+                    bucket.advanceTo(rs.getLong(3), nowMicros);
+                }
+                bucket.lastTotal = total;
+            }, batch.toArray());
+        }
+    }
+}
@@ -1,57 +1,133 @@
 package com.foodsharing.security;
 
+import com.foodsharing.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
-import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 令牌签发与校验：签名密钥和解析器在启动时构造一次（JwtParser 线程安全），
+ * 校验通过的令牌按 SHA-256 摘要缓存到过期时间，同一令牌的后续请求不再验签和解析
+ */
 @Component
 public class JwtUtil {
-    @Value("${app.jwt.secret}")
-    private String secret;
+    // 自定义声明：用户ID、角色、令牌版本
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
 
-    @Value("${app.jwt.expire-minutes}")
-    private long expireMinutes;
+    private final Key signKey;
+    private final JwtParser parser;
+    private final long expireMinutes;
+    private final int cacheMaxEntries;
 
-    private Key getSignKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    public JwtUtil(@Value("${app.jwt.secret}") String secret,
+                   @Value("${app.jwt.expire-minutes}") long expireMinutes,
+                   @Value("${app.jwt.verified-cache.max-entries:10000}") int cacheMaxEntries) {
+        this.signKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+        this.expireMinutes = expireMinutes;
+        this.cacheMaxEntries = cacheMaxEntries;
     }
 
-    public String generateToken(String username) {
+    public String generateToken(User user) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expireMinutes * 60 * 1000);
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion() == null ? 0 : user.getTokenVersion())
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+    /**
+     * 校验签名和有效期并返回声明（只读，缓存命中时多个请求共享同一对象）
+     *
+     * @throws JwtException 令牌无效或已过期
+     */
+    public Claims verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            verified.remove(digest, cached);
+        }
+
+        // 过期时 parseClaimsJws 抛出 ExpiredJwtException
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date exp = claims.getExpiration();
+        if (exp != null) {
+            if (verified.size() >= cacheMaxEntries) {
+                verified.values().removeIf(t -> t.expiresAt <= now);
+                if (verified.size() >= cacheMaxEntries) {
+                    verified.clear();
+                }
+            }
+            verified.put(digest, new VerifiedToken(claims, exp.getTime()));
+        }
+        return claims;
     }
 
-    public boolean isTokenValid(String token) {
+    /**
+     * 验签并由声明构造认证主体；令牌无效、过期或缺少声明（旧版本签发的令牌）时返回 null
+     */
+    public UserPrincipal parsePrincipal(String token) {
+        Claims claims;
         try {
-            Claims claims = getClaims(token);
-            return claims.getExpiration().after(new Date());
-        } catch (Exception e) {
-            return false;
+            claims = verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Object userId = claims.get(CLAIM_USER_ID);
+        Object role = claims.get(CLAIM_ROLE);
+        Object tokenVersion = claims.get(CLAIM_TOKEN_VERSION);
+        if (!(userId instanceof Number) || !(role instanceof String) || !(tokenVersion instanceof Number)) {
+            return null;
         }
+        return new UserPrincipal(((Number) userId).longValue(), claims.getSubject(),
+                (String) role, ((Number) tokenVersion).intValue());
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // 所有 JRE 都必须提供 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class VerifiedToken {
+        final Claims claims;
+        final long expiresAt;
+
+        VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
     }
 }
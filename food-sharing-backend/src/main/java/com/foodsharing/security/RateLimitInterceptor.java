@@ -2,46 +2,79 @@ package com.foodsharing.security;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 
+/**
+ * 接口限流：按顺序匹配第一条规则（未匹配时用默认规则），按登录用户或IP计数，
+ * 响应带 X-RateLimit-Limit / X-RateLimit-Remaining / X-RateLimit-Reset（秒），被拒绝时带 Retry-After（秒）
+ */
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    // 每个IP的请求计数（时间窗口：1分钟）
-    private final Map<String, RequestCounter> requestCounters = new ConcurrentHashMap<>();
-    private static final int MAX_REQUESTS_PER_MINUTE = 100; // 每分钟最大请求数
-    private static final long TIME_WINDOW_MS = 60 * 1000; // 1分钟
+    private final RateLimiter rateLimiter;
+    private final List<RateLimitRule> rules;
+    private final RateLimitRule defaultRule;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitInterceptor(RateLimiter rateLimiter,
+                                @Value("${app.rate-limit.rules:}") String rules,
+                                @Value("${app.rate-limit.default:100/60 user}") String defaultRule) {
+        this.rateLimiter = rateLimiter;
+        this.rules = RateLimitRule.parseRules(rules);
+        this.defaultRule = RateLimitRule.parseDefault(defaultRule);
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String clientIp = getClientIpAddress(request);
-        RequestCounter counter = requestCounters.computeIfAbsent(clientIp, k -> new RequestCounter());
-
-        long currentTime = System.currentTimeMillis();
-        
-        // 清理过期计数器
-        if (currentTime - counter.getWindowStart() > TIME_WINDOW_MS) {
-            counter.reset(currentTime);
+        if ("OPTIONS".equals(request.getMethod())) {
+            return true;
         }
+        RateLimitRule rule = matchRule(request);
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(rule, resolveKey(rule, request));
 
-        // 检查是否超过限制
-        if (counter.getCount().get() >= MAX_REQUESTS_PER_MINUTE) {
+        response.setHeader("X-RateLimit-Limit", String.valueOf(decision.getLimit()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(toSeconds(decision.getResetMicros())));
+        if (!decision.isAllowed()) {
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, toSeconds(decision.getRetryAfterMicros()))));
             response.setStatus(429); // Too Many Requests
             response.setContentType("application/json;charset=UTF-8");
             response.getWriter().write("{\"message\":\"请求过于频繁，请稍后再试\"}");
             return false;
         }
-
-        // 增加计数
-        counter.getCount().incrementAndGet();
         return true;
     }
 
+    private RateLimitRule matchRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitRule rule : rules) {
+            if ((rule.getMethod() == null || rule.getMethod().equals(request.getMethod()))
+                    && pathMatcher.match(rule.getPattern(), path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    private String resolveKey(RateLimitRule rule, HttpServletRequest request) {
+        if (rule.getKeyType() == RateLimitRule.KeyType.USER) {
+            UserPrincipal principal = CurrentUserArgumentResolver.currentPrincipal();
+            if (principal != null) {
+                return "u" + principal.getUserId();
+            }
+        }
+        return "ip" + getClientIpAddress(request);
+    }
+
+    private static long toSeconds(long micros) {
+        return (micros + 999_999) / 1_000_000;
+    }
+
     private String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
@@ -53,23 +86,4 @@ public class RateLimitInterceptor implements HandlerInterceptor {
         }
         return request.getRemoteAddr();
     }
-
-    private static class RequestCounter {
-        private final AtomicInteger count = new AtomicInteger(0);
-        private long windowStart = System.currentTimeMillis();
-
-        public AtomicInteger getCount() {
-            return count;
-        }
-
-        public long getWindowStart() {
-            return windowStart;
-        }
-
-        public void reset(long newWindowStart) {
-            count.set(0);
-            windowStart = newWindowStart;
-        }
-    }
 }
-
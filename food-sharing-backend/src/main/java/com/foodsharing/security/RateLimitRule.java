@@ -0,0 +1,99 @@
+package com.foodsharing.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 限流规则：请求方法（为空表示任意）+ 路径模式，在 periodSeconds 秒内最多 limit 次，
+ * 按 IP 或按登录用户计数（未登录时退回按 IP）。
+ * 配置格式为 "[方法] 路径模式 次数/秒数 [ip|user]"，多条规则以分号分隔
+ */
+public class RateLimitRule {
+
+    public enum KeyType { IP, USER }
+
+    private final String id;
+    private final String method;
+    private final String pattern;
+    private final int limit;
+    private final long periodSeconds;
+    private final KeyType keyType;
+
+    public RateLimitRule(String id, String method, String pattern, int limit, long periodSeconds, KeyType keyType) {
+        if (limit <= 0 || periodSeconds <= 0) {
+            throw new IllegalArgumentException("rate limit must be positive: " + limit + "/" + periodSeconds);
+        }
+        this.id = id;
+        this.method = method;
+        this.pattern = pattern;
+        this.limit = limit;
+        this.periodSeconds = periodSeconds;
+        this.keyType = keyType;
+    }
+
+    /**
+     * 解析分号分隔的规则列表，规则ID为其序号
+     *
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public static List<RateLimitRule> parseRules(String spec) {
+        List<RateLimitRule> rules = new ArrayList<>();
+        if (spec == null) {
+            return rules;
+        }
+        for (String part : spec.split(";")) {
+            String[] tokens = part.trim().split("\\s+");
+            if (tokens.length == 1 && tokens[0].isEmpty()) {
+                continue;
+            }
+            int i = 0;
+            String method = null;
+            if (i < tokens.length && !tokens[i].startsWith("/")) {
+                method = tokens[i++].toUpperCase(Locale.ROOT);
+            }
+            if (i >= tokens.length || !tokens[i].startsWith("/")) {
+                throw new IllegalArgumentException("missing path pattern in rate limit rule: " + part.trim());
+            }
+            String pattern = tokens[i++];
+            rules.add(parse("r" + rules.size(), method, pattern, tokens, i, part));
+        }
+        return rules;
+    }
+
+    /**
+     * 解析默认规则 "次数/秒数 [ip|user]"，匹配所有路径
+     */
+    public static RateLimitRule parseDefault(String spec) {
+        return parse("default", null, "/**", spec.trim().split("\\s+"), 0, spec);
+    }
+
+    private static RateLimitRule parse(String id, String method, String pattern, String[] tokens, int i, String source) {
+        if (i >= tokens.length || tokens.length > i + 2) {
+            throw new IllegalArgumentException("invalid rate limit rule: " + source.trim());
+        }
+        String[] rate = tokens[i].split("/");
+        KeyType keyType = KeyType.USER;
+        if (tokens.length == i + 2) {
+            keyType = KeyType.valueOf(tokens[i + 1].toUpperCase(Locale.ROOT));
+        }
+        try {
+            return new RateLimitRule(id, method, pattern, Integer.parseInt(rate[0]),
+                    rate.length > 1 ? Long.parseLong(rate[1]) : 60, keyType);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid rate in rate limit rule: " + source.trim(), e);
+        }
+    }
+
+    public String getId() { return id; }
+
+    public String getMethod() { return method; }
+
+    public String getPattern() { return pattern; }
+
+    public int getLimit() { return limit; }
+
+    public long getPeriodSeconds() { return periodSeconds; }
+
+    public KeyType getKeyType() { return keyType; }
+}
@@ -0,0 +1,24 @@
+package com.foodsharing.security;
+
+/**
+ * 限流计数存储：每个键一个 GCRA 桶。实现需要线程安全，acquire 在请求线程上调用，不应有远程调用；
+ * maintain 由 RateLimiter 定期调用，用于清理过期键、与共享存储同步等
+ */
+public interface RateLimitStore {
+
+    /**
+     * 在键对应的桶上申请一次请求
+     *
+     * @param limit          桶容量（周期内的请求数）
+     * @param intervalMicros 令牌发放间隔（周期 / limit）
+     * @param nowMicros      当前时间（微秒）
+     */
+    RateLimiter.Decision acquire(String key, int limit, long intervalMicros, long nowMicros);
+
+    void maintain(long nowMicros);
+
+    /**
+     * 当前跟踪的键数
+     */
+    int size();
+}
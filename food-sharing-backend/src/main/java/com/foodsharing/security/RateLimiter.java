@@ -0,0 +1,71 @@
+package com.foodsharing.security;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 令牌桶限流（GCRA）：按规则计算发放间隔，在 RateLimitStore 中为键申请请求；
+ * 存储由 app.rate-limit.store 选择（memory / jdbc，见 RateLimitConfig）
+ */
+@Component
+public class RateLimiter {
+
+    private final RateLimitStore store;
+
+    public RateLimiter(RateLimitStore store) {
+        this.store = store;
+    }
+
+    /**
+     * 按规则为键申请一次请求
+     */
+    public Decision tryAcquire(RateLimitRule rule, String key) {
+        long now = System.currentTimeMillis() * 1000;
+        long interval = rule.getPeriodSeconds() * 1_000_000 / rule.getLimit();
+        return store.acquire(rule.getId() + ":" + key, rule.getLimit(), interval, now);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * 定期维护存储：清理已回满的桶，共享存储在此同步
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sync-ms:1000}")
+    public void maintain() {
+        store.maintain(System.currentTimeMillis() * 1000);
+    }
+
+    /**
+     * 限流结果，时间单位为微秒
+     */
+    public static class Decision {
+        private final boolean allowed;
+        private final int limit;
+        private final int remaining;
+        private final long retryAfterMicros;
+        private final long resetMicros;
+
+        Decision(boolean allowed, int limit, int remaining, long retryAfterMicros, long resetMicros) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.retryAfterMicros = retryAfterMicros;
+            this.resetMicros = resetMicros;
+        }
+
+        public boolean isAllowed() { return allowed; }
+
+        public int getLimit() { return limit; }
+
+        /** 当前还可立即发起的请求数 */
+        public int getRemaining() { return remaining; }
+
+        /** 被拒绝时距可再次请求的时间 */
+        public long getRetryAfterMicros() { return retryAfterMicros; }
+
+        /** 距桶完全回满的时间 */
+        public long getResetMicros() { return Math.max(0, resetMicros); }
+    }
+}
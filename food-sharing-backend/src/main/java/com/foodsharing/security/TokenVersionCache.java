@@ -0,0 +1,101 @@
+package com.foodsharing.security;
+
+import com.foodsharing.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌版本缓存：JWT 中的用户ID、角色在验签后直接采信，只需确认令牌版本仍是用户当前版本且用户未被禁用。
+ * 每个用户的版本缓存 ttl 秒，本机修改（禁用、改角色、删除）立即生效，其他实例最迟 ttl 秒后生效
+ */
+@Component
+public class TokenVersionCache {
+
+    // 用户已禁用或不存在，任何令牌都不匹配
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public TokenVersionCache(UserRepository userRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.jwt.version-cache.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${app.jwt.version-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 令牌版本是否为用户当前版本（用户被禁用或已删除时返回 false）
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.stale || entry.expiresAt <= now) {
+            entry = load(userId, entry, now);
+        }
+        return entry.version == tokenVersion;
+    }
+
+    /**
+     * 递增用户的令牌版本，已签发的令牌全部失效；提交后再使缓存失效
+     */
+    public void revoke(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> userRepository.incrementTokenVersion(userId));
+        evict(userId);
+    }
+
+    /**
+     * 使缓存失效，下次校验时重新读取（启用、删除用户后调用）。
+     * 写入一个待重新读取的新条目而不是直接移除：并发的 load 若在此之前读到了旧状态，
+     * 回填时发现条目已变化就不会覆盖（该条目保留 ttl，期间不会被容量清理移除）
+     */
+    public void evict(Long userId) {
+        entries.put(userId, new Entry(REVOKED, System.currentTimeMillis() + ttlMillis, true));
+    }
+
+    /**
+     * 读取用户当前的令牌状态；只有条目仍是读取前看到的 seen 时才写入缓存
+     */
+    private Entry load(Long userId, Entry seen, long now) {
+        List<Object[]> rows = userRepository.findTokenState(userId);
+        int version = REVOKED;
+        if (!rows.isEmpty() && !Boolean.FALSE.equals(rows.get(0)[1])) {
+            version = ((Number) rows.get(0)[0]).intValue();
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+            if (entries.size() >= maxEntries) {
+                // 未过期的失效标记要保留，否则并发加载可能把失效前读到的版本写回缓存
+                entries.values().removeIf(e -> !e.stale);
+            }
+        }
+        Entry entry = new Entry(version, now + ttlMillis, false);
+        entries.compute(userId, (id, current) -> current == seen ? entry : current);
+        return entry;
+    }
+
+    private static final class Entry {
+        final int version;
+        final long expiresAt;
+        // 已失效、必须重新读取的条目
+        final boolean stale;
+
+        Entry(int version, long expiresAt, boolean stale) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+            this.stale = stale;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.foodsharing.security;
+
+import com.foodsharing.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 认证主体：登录时由用户实体构造，携带实体本身；携带令牌访问时由 JWT 声明构造，只有ID、用户名、角色和令牌版本，
+ * 需要实体时由 CurrentUserArgumentResolver 按ID加载（每个请求最多一次）
+ */
+public class UserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String username;
+    private final String password;
+    private final String role;
+    private final int tokenVersion;
+    private final boolean enabled;
+    private final User user;
+
+    public UserPrincipal(User user) {
+        this.userId = user.getId();
+        this.username = user.getUsername();
+        this.password = user.getPassword();
+        this.role = user.getRole();
+        this.tokenVersion = user.getTokenVersion() == null ? 0 : user.getTokenVersion();
+        this.enabled = !Boolean.FALSE.equals(user.getEnabled());
+        this.user = user;
+    }
+
+    public UserPrincipal(Long userId, String username, String role, int tokenVersion) {
+        this.userId = userId;
+        this.username = username;
+        this.password = null;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        this.enabled = true;
+        this.user = null;
+    }
+
+    public Long getUserId() { return userId; }
+
+    public String getRole() { return role; }
+
+    public int getTokenVersion() { return tokenVersion; }
+
+    /** 登录时加载的用户实体，由令牌构造时为 null */
+    public User getUser() { return user; }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() { return password; }
+
+    @Override
+    public String getUsername() { return username; }
+
+    @Override
+    public boolean isAccountNonExpired() { return true; }
+
+    @Override
+    public boolean isAccountNonLocked() { return true; }
+
+    @Override
+    public boolean isCredentialsNonExpired() { return true; }
+
+    @Override
+    public boolean isEnabled() { return enabled; }
+}
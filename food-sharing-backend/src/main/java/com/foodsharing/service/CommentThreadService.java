@@ -0,0 +1,235 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.Comment;
+import com.foodsharing.repository.CommentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 评论楼层加载：一页评论的回复用一次窗口查询取出每楼最早的若干条和回复总数，
+ * 再按ID批量加载回复及其用户；其余回复通过游标分页读取。
+ * 每条评论保存楼层根ID和物化路径，任意子树可以在 (root_id, path) 索引上一次范围扫描按序分页读出
+ */
+@Service
+public class CommentThreadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentThreadService.class);
+
+    // 第一页使用的游标：比任何回复都早
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // 路径中每级ID编码为 8 位 36 进制（与 backfillPaths 中的 LPAD(CONV(id, 10, 36), 8, '0') 一致）
+    static final int PATH_SEGMENT_LENGTH = 8;
+    // path 列长 760，最多容纳 95 级；更深的回复挂到上一级评论下
+    static final int MAX_DEPTH = 760 / PATH_SEGMENT_LENGTH - 1;
+
+    private final CommentRepository commentRepository;
+    private final int previewSize;
+
+    public CommentThreadService(CommentRepository commentRepository,
+                                @Value("${app.comments.reply-preview-size:3}") int previewSize) {
+        this.commentRepository = commentRepository;
+        this.previewSize = previewSize;
+    }
+
+    /**
+     * 保存新评论并写入楼层根ID、路径和层级；路径包含自身ID，所以在插入取得ID后补写
+     */
+    @Transactional
+    public Comment save(Comment comment) {
+        Comment parent = comment.getParent();
+        if (parent != null && parent.getDepth() != null && parent.getDepth() >= MAX_DEPTH) {
+            comment.setParent(parent = parent.getParent());
+        }
+        Comment saved = commentRepository.save(comment);
+        String segment = encodeSegment(saved.getId());
+        if (parent == null) {
+            saved.setRootId(saved.getId());
+            saved.setPath(segment);
+            saved.setDepth(0);
+        } else if (parent.getPath() != null) {
+            saved.setRootId(parent.getRootId());
+            saved.setPath(parent.getPath() + segment);
+            saved.setDepth(parent.getDepth() + 1);
+        }
+        // 父评论尚未补齐路径时留空，由 backfillPaths 统一推导
+        return saved;
+    }
+
+    /**
+     * 启动时为升级前的评论补齐路径，已有路径的评论不会被修改
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPaths() {
+        if (!commentRepository.existsByPathIsNull()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int rows = commentRepository.backfillPaths();
+        logger.info("Backfilled materialized paths for {} comments in {} ms", rows, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 按深度优先顺序读取一条评论的整棵子树（含自身），游标为上一页最后一条的路径
+     *
+     * @return 评论不存在或尚未补齐路径时返回 null
+     */
+    public SubtreePage getSubtree(Long commentId, String cursor, int size) {
+        Comment root = commentRepository.findById(commentId).orElse(null);
+        if (root == null || root.getPath() == null) {
+            return null;
+        }
+        String afterPath = cursor == null ? "" : cursor;
+        List<Comment> rows = commentRepository.findSubtreeAfter(
+                root.getRootId(), root.getPath(), afterPath, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<Comment> page = hasMore ? rows.subList(0, size) : rows;
+        return new SubtreePage(root, page, hasMore ? page.get(page.size() - 1).getPath() : null);
+    }
+
+    /**
+     * 评论及其所有下级回复的条数
+     */
+    public long countSubtree(Comment comment) {
+        if (comment.getPath() == null) {
+            return 1;
+        }
+        return commentRepository.countSubtree(comment.getRootId(), comment.getPath());
+    }
+
+    static String encodeSegment(long id) {
+        String s = Long.toString(id, 36).toUpperCase(Locale.ROOT);
+        if (s.length() > PATH_SEGMENT_LENGTH) {
+            throw new IllegalStateException("comment id too large for path segment: " + id);
+        }
+        return "0".repeat(PATH_SEGMENT_LENGTH - s.length()) + s;
+    }
+
+    /**
+     * 每条评论的回复预览，键为评论ID，没有回复的评论不在结果中
+     */
+    public Map<Long, ReplyPage> loadReplyPreviews(Collection<Long> parentIds) {
+        if (parentIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Object[]> rows = commentRepository.findReplyPreviews(parentIds, previewSize);
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> replyIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            replyIds.add(((Number) row[0]).longValue());
+        }
+        Map<Long, Comment> byId = commentRepository.findByIdIn(replyIds).stream()
+                .collect(Collectors.toMap(Comment::getId, Function.identity()));
+
+        Map<Long, List<Comment>> replies = new LinkedHashMap<>();
+        Map<Long, Long> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            Long parentId = ((Number) row[1]).longValue();
+            Comment reply = byId.get(((Number) row[0]).longValue());
+            totals.put(parentId, ((Number) row[2]).longValue());
+            if (reply != null) {
+                replies.computeIfAbsent(parentId, id -> new ArrayList<>()).add(reply);
+            }
+        }
+
+        Map<Long, ReplyPage> result = new HashMap<>();
+        replies.forEach((parentId, list) -> {
+            long total = totals.get(parentId);
+            String nextCursor = total > list.size() ? encodeCursor(list.get(list.size() - 1)) : null;
+            result.put(parentId, new ReplyPage(list, total, nextCursor));
+        });
+        return result;
+    }
+
+    /**
+     * 读取一页回复
+     *
+     * @param cursor 上一页（或预览）返回的游标，第一页为 null
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public ReplyPage getReplies(Long parentId, String cursor, int size) {
+        LocalDateTime afterTime = MIN_TIME;
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            int sep = cursor.indexOf('_');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor);
+            }
+            try {
+                afterTime = LocalDateTime.ofInstant(
+                        Instant.ofEpochSecond(0, Long.parseLong(cursor.substring(0, sep))), ZoneId.systemDefault());
+                afterId = Long.parseLong(cursor.substring(sep + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+            }
+        }
+        List<Comment> rows = commentRepository.findRepliesAfter(parentId, afterTime, afterId, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<Comment> page = hasMore ? rows.subList(0, size) : rows;
+        return new ReplyPage(page, -1, hasMore ? encodeCursor(page.get(page.size() - 1)) : null);
+    }
+
+    /**
+     * 游标格式：{创建时间的纳秒时间戳}_{id}；不能截断到毫秒，datetime(6) 列的微秒部分会让
+     * 上一页最后一条的时间大于游标时间而在下一页重复出现
+     */
+    private static String encodeCursor(Comment comment) {
+        Instant createdAt = comment.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        long nanos = createdAt.getEpochSecond() * 1_000_000_000L + createdAt.getNano();
+        return nanos + "_" + comment.getId();
+    }
+
+    public static class SubtreePage {
+        private final Comment root;
+        private final List<Comment> comments;
+        private final String nextCursor;
+
+        SubtreePage(Comment root, List<Comment> comments, String nextCursor) {
+            this.root = root;
+            this.comments = comments;
+            this.nextCursor = nextCursor;
+        }
+
+        public Comment getRoot() { return root; }
+
+        /** 按路径排序的子树评论，第一页的第一条为子树根自身 */
+        public List<Comment> getComments() { return comments; }
+
+        public String getNextCursor() { return nextCursor; }
+    }
+
+    public static class ReplyPage {
+        private final List<Comment> replies;
+        private final long total;
+        private final String nextCursor;
+
+        ReplyPage(List<Comment> replies, long total, String nextCursor) {
+            this.replies = replies;
+            this.total = total;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Comment> getReplies() { return replies; }
+
+        /** 回复总数，分页读取时为 -1（不统计） */
+        public long getTotal() { return total; }
+
+        public String getNextCursor() { return nextCursor; }
+    }
+}
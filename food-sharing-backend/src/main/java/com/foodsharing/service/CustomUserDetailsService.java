@@ -2,14 +2,12 @@ package com.foodsharing.service;
 
 import com.foodsharing.entity.User;
 import com.foodsharing.repository.UserRepository;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import com.foodsharing.security.UserPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepository userRepository;
@@ -23,10 +21,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         User u = userRepository.findByUsername(usernameOrEmail)
                 .orElseGet(() -> userRepository.findByEmail(usernameOrEmail)
                         .orElseThrow(() -> new UsernameNotFoundException("User not found")));
-        return new org.springframework.security.core.userdetails.User(
-                u.getUsername(),
-                u.getPassword(),
-                List.of(new SimpleGrantedAuthority(u.getRole()))
-        );
+        // 主体携带用户实体，登录后据此签发令牌；禁用的用户由 isEnabled 拒绝登录
+        return new UserPrincipal(u);
     }
 }
@@ -0,0 +1,215 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.event.FollowEvent;
+import com.foodsharing.event.PostLifecycleEvent;
+import com.foodsharing.repository.FollowRepository;
+import com.foodsharing.repository.PostRepository;
+import com.foodsharing.repository.UserTimelineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 关注动态服务：内容审核通过时写入关注者的时间线（写扩散），
+ * 关注者数超过阈值的作者不做写扩散，读取时再从内容表拉取并与时间线合并（读扩散）
+ */
+@Service
+public class FeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedService.class);
+
+    // 第一页使用的游标：比任何内容都新
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final UserTimelineRepository timelineRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+
+    private final long fanoutMaxFollowers;
+    private final int maxSize;
+
+    // 关注者数超过阈值的作者，定期刷新
+    private volatile Set<Long> largeAuthorIds = Set.of();
+
+    public FeedService(UserTimelineRepository timelineRepository,
+                       FollowRepository followRepository,
+                       PostRepository postRepository,
+                       @Value("${app.feed.fanout-max-followers:5000}") long fanoutMaxFollowers,
+                       @Value("${app.feed.max-size:500}") int maxSize) {
+        this.timelineRepository = timelineRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.fanoutMaxFollowers = fanoutMaxFollowers;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 读取一页关注动态
+     *
+     * @param cursor 上一页返回的 nextCursor，第一页为 null
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public FeedPage getFeed(Long userId, String cursor, int size) {
+        LocalDateTime beforeTime = MAX_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            int sep = cursor.indexOf('_');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor);
+            }
+            try {
+                beforeTime = LocalDateTime.ofInstant(
+                        decodeCursorTime(Long.parseLong(cursor.substring(0, sep))), ZoneId.systemDefault());
+                beforeId = Long.parseLong(cursor.substring(sep + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+            }
+        }
+
+        PageRequest pageable = PageRequest.of(0, size + 1);
+        List<Object[]> rows = new ArrayList<>(timelineRepository.findBefore(userId, beforeTime, beforeId, pageable));
+        Set<Long> largeAuthors = largeAuthorIds;
+        if (!largeAuthors.isEmpty()) {
+            List<Long> followedLarge = followRepository.findFollowingIdsIn(userId, largeAuthors);
+            if (!followedLarge.isEmpty()) {
+                rows.addAll(postRepository.findApprovedByAuthorsBefore(followedLarge, beforeTime, beforeId, pageable));
+                rows.sort(Comparator.<Object[], LocalDateTime>comparing(r -> (LocalDateTime) r[1])
+                        .thenComparing(r -> (Long) r[0])
+                        .reversed());
+            }
+        }
+
+        // 作者变为大 V 之前写入的内容可能同时出现在两路结果中，按ID去重
+        Set<Long> seen = new HashSet<>();
+        List<Object[]> merged = new ArrayList<>();
+        for (Object[] row : rows) {
+            if (seen.add((Long) row[0])) {
+                merged.add(row);
+            }
+        }
+
+        boolean hasMore = merged.size() > size;
+        List<Object[]> page = hasMore ? merged.subList(0, size) : merged;
+        List<Long> postIds = new ArrayList<>();
+        for (Object[] row : page) {
+            postIds.add((Long) row[0]);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = page.get(page.size() - 1);
+            // 纳秒时间戳：截断到毫秒时 datetime(6) 列上同一毫秒内更早的内容会在翻页时被跳过
+            Instant createdAt = ((LocalDateTime) last[1]).atZone(ZoneId.systemDefault()).toInstant();
+            nextCursor = (createdAt.getEpochSecond() * 1_000_000_000L + createdAt.getNano()) + "_" + last[0];
+        }
+        return new FeedPage(postIds, nextCursor);
+    }
+
+    /**
+     * 游标时间为纳秒时间戳；兼容之前签发的毫秒时间戳游标（纳秒时间戳远大于 1e15）
+     */
+    private static Instant decodeCursorTime(long key) {
+        return key < 1_000_000_000_000_000L ? Instant.ofEpochMilli(key) : Instant.ofEpochSecond(0, key);
+    }
+
+    /**
+     * 关注动态中最近的内容ID（供个性化推荐召回）
+     */
+    public List<Long> getRecentPostIds(Long userId, int limit) {
+        return getFeed(userId, null, limit).getPostIds();
+    }
+
+    /**
+     * 审核通过时写扩散，拒绝或删除时从时间线移除
+     */
+    @Async
+    @EventListener
+    @Transactional
+    public void onPostLifecycle(PostLifecycleEvent event) {
+        Post post = event.getPost();
+        switch (event.getAction()) {
+            case APPROVED -> {
+                Long authorId = post.getAuthor().getId();
+                if (largeAuthorIds.contains(authorId)
+                        || followRepository.countFollowersByUserId(authorId) > fanoutMaxFollowers) {
+                    return;
+                }
+                timelineRepository.fanOut(post.getId(), authorId, post.getCreatedAt());
+            }
+            case REJECTED, DELETED -> timelineRepository.deleteByPostId(post.getId());
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 关注时补入作者最近的内容，取消关注时移除
+     */
+    @EventListener
+    @Transactional
+    public void onFollow(FollowEvent event) {
+        if (event.isFollowed()) {
+            if (!largeAuthorIds.contains(event.getFollowingId())) {
+                timelineRepository.backfill(event.getFollowerId(), event.getFollowingId(), maxSize);
+            }
+        } else {
+            timelineRepository.deleteByUserIdAndAuthorId(event.getFollowerId(), event.getFollowingId());
+        }
+    }
+
+    /**
+     * 启动时刷新大 V 列表；时间线为空时从关注关系全量生成
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        refreshLargeAuthors();
+        if (timelineRepository.count() == 0) {
+            long start = System.currentTimeMillis();
+            int rows = timelineRepository.rebuildAll();
+            timelineRepository.trim(maxSize);
+            logger.info("Built {} timeline entries in {} ms", rows, System.currentTimeMillis() - start);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.large-author-refresh-ms:600000}")
+    public void refreshLargeAuthors() {
+        largeAuthorIds = Set.copyOf(followRepository.findUserIdsWithFollowersMoreThan(fanoutMaxFollowers));
+    }
+
+    /**
+     * 定期裁剪时间线长度
+     */
+    @Scheduled(cron = "${app.feed.trim-cron:0 0 4 * * *}")
+    @Transactional
+    public void trim() {
+        int removed = timelineRepository.trim(maxSize);
+        logger.info("Trimmed {} timeline entries", removed);
+    }
+
+    public static class FeedPage {
+        private final List<Long> postIds;
+        private final String nextCursor;
+
+        FeedPage(List<Long> postIds, String nextCursor) {
+            this.postIds = postIds;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Long> getPostIds() { return postIds; }
+
+        public String getNextCursor() { return nextCursor; }
+    }
+}
@@ -0,0 +1,292 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.event.PostLifecycleEvent;
+import com.foodsharing.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 地理位置索引：把已审核通过且带坐标的内容放进经纬度网格，
+ * 近邻查询从所在网格向外逐圈扩展，只扫描候选网格内的点
+ */
+@Service
+public class GeoIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoIndexService.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final int LOAD_BATCH_SIZE = 10000;
+
+    private final PostRepository postRepository;
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lngCells;
+
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    public GeoIndexService(PostRepository postRepository,
+                           @Value("${app.recommendation.location.cell-degrees:0.05}") double cellDegrees) {
+        this.postRepository = postRepository;
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lngCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * 启动时分批加载已审核通过的带坐标内容
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<Object[]> rows = postRepository.findApprovedGeoPointsAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    put((Long) row[0], (Double) row[1], (Double) row[2]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded += rows.size();
+            if (rows.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        logger.info("Geo index loaded {} posts into {} cells", loaded, cells.size());
+    }
+
+    /**
+     * 审核通过时加入索引，拒绝或删除时移出
+     */
+    @EventListener
+    public void onPostLifecycle(PostLifecycleEvent event) {
+        Post post = event.getPost();
+        if (post.getLat() == null || post.getLng() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.getAction() == PostLifecycleEvent.Action.APPROVED) {
+                put(post.getId(), post.getLat(), post.getLng());
+            } else if (event.getAction() == PostLifecycleEvent.Action.REJECTED
+                    || event.getAction() == PostLifecycleEvent.Action.DELETED) {
+                remove(post.getId(), post.getLat(), post.getLng());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按距离由近到远返回内容ID
+     *
+     * @param radiusKm 最大距离（公里），为 null 时不限制
+     * @param offset   跳过的条数（分页）
+     * @param limit    返回条数
+     */
+    public List<Long> findNearest(double lat, double lng, Double radiusKm, int offset, int limit) {
+        int k = offset + limit;
+        if (offset < 0 || limit <= 0 || k <= 0) {
+            return List.of();
+        }
+        double maxDistance = radiusKm != null ? radiusKm : Double.MAX_VALUE;
+        PriorityQueue<Candidate> heap;
+
+        lock.readLock().lock();
+        try {
+            if (offset >= size) {
+                return List.of();
+            }
+            // 大顶堆，堆顶是当前第 k 近的候选；容量不超过已索引的内容数
+            heap = new PriorityQueue<>(Math.min(k, size) + 1,
+                    (a, b) -> Double.compare(b.distanceKm, a.distanceKm));
+            int centerLat = latIndex(lat);
+            int centerLng = lngIndex(lng);
+            for (int ring = 0; ; ring++) {
+                double ringMin = ringMinDistanceKm(lat, ring);
+                if (ringMin > maxDistance || (heap.size() == k && ringMin > heap.peek().distanceKm)) {
+                    break;
+                }
+                long ringCells = ring == 0 ? 1 : 8L * ring;
+                if (ringCells > cells.size() || 2 * ring + 1 >= lngCells || ring > latCells) {
+                    // 外圈网格数已超过非空网格数，直接扫描全部非空网格
+                    heap.clear();
+                    for (Cell cell : cells.values()) {
+                        cell.collect(lat, lng, maxDistance, k, heap);
+                    }
+                    break;
+                }
+                for (int dLat = -ring; dLat <= ring; dLat++) {
+                    int latIdx = centerLat + dLat;
+                    if (latIdx < 0 || latIdx >= latCells) {
+                        continue;
+                    }
+                    // 首末行扫描整行，中间行只取左右两端
+                    int step = Math.abs(dLat) == ring ? 1 : 2 * ring;
+                    for (int dLng = -ring; dLng <= ring; dLng += step) {
+                        Cell cell = cells.get(cellKey(latIdx, Math.floorMod(centerLng + dLng, lngCells)));
+                        if (cell != null) {
+                            cell.collect(lat, lng, maxDistance, k, heap);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> sorted = new ArrayList<>(heap);
+        sorted.sort(Comparator.comparingDouble(c -> c.distanceKm));
+        List<Long> ids = new ArrayList<>();
+        for (int i = offset; i < sorted.size(); i++) {
+            ids.add(sorted.get(i).postId);
+        }
+        return ids;
+    }
+
+    /**
+     * Haversine 球面距离（公里）
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * 第 ring 圈网格到查询点的近似距离下界：经度方向按该圈最高纬度收缩
+     */
+    private double ringMinDistanceKm(double lat, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double maxLat = Math.min(89.9, Math.abs(lat) + ring * cellDegrees);
+        return (ring - 1) * cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(maxLat));
+    }
+
+    private void put(Long postId, double lat, double lng) {
+        Cell cell = cells.computeIfAbsent(cellKey(latIndex(lat), lngIndex(lng)), key -> new Cell());
+        if (cell.put(postId, lat, lng)) {
+            size++;
+        }
+    }
+
+    private void remove(Long postId, double lat, double lng) {
+        long key = cellKey(latIndex(lat), lngIndex(lng));
+        Cell cell = cells.get(key);
+        if (cell != null && cell.remove(postId)) {
+            size--;
+            if (cell.size == 0) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private int latIndex(double lat) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((lat + 90) / cellDegrees)));
+    }
+
+    private int lngIndex(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180) / cellDegrees), lngCells);
+    }
+
+    private static long cellKey(int latIdx, int lngIdx) {
+        return ((long) latIdx << 32) | (lngIdx & 0xffffffffL);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static class Candidate {
+        final long postId;
+        final double distanceKm;
+
+        Candidate(long postId, double distanceKm) {
+            this.postId = postId;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    /**
+     * 单个网格内的点，用并行数组存储以减少对象开销
+     */
+    private static class Cell {
+        long[] ids = new long[4];
+        double[] lats = new double[4];
+        double[] lngs = new double[4];
+        int size;
+
+        boolean put(long id, double lat, double lng) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    lats[i] = lat;
+                    lngs[i] = lng;
+                    return false;
+                }
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                lats = Arrays.copyOf(lats, size * 2);
+                lngs = Arrays.copyOf(lngs, size * 2);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lngs[size] = lng;
+            size++;
+            return true;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lngs[i] = lngs[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void collect(double lat, double lng, double maxDistance, int k, PriorityQueue<Candidate> heap) {
+            for (int i = 0; i < size; i++) {
+                double d = distanceKm(lat, lng, lats[i], lngs[i]);
+                if (d > maxDistance) {
+                    continue;
+                }
+                if (heap.size() < k) {
+                    heap.offer(new Candidate(ids[i], d));
+                } else if (d < heap.peek().distanceKm) {
+                    heap.poll();
+                    heap.offer(new Candidate(ids[i], d));
+                }
+            }
+        }
+    }
+}
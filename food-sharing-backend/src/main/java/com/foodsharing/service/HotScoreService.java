@@ -0,0 +1,73 @@
+package com.foodsharing.service;
+
+import com.foodsharing.event.PostInteractionEvent;
+import com.foodsharing.repository.PostHotScoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 内容热度服务：根据互动事件增量维护 post_hot_scores，读取时按分数索引取前 N 条
+ */
+@Service
+public class HotScoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotScoreService.class);
+
+    private final PostHotScoreRepository postHotScoreRepository;
+
+    public HotScoreService(PostHotScoreRepository postHotScoreRepository) {
+        this.postHotScoreRepository = postHotScoreRepository;
+    }
+
+    /**
+     * 热度最高的内容ID（按分数降序）
+     */
+    public List<Long> getTopPostIds(int limit) {
+        return postHotScoreRepository.findTopPostIds(PageRequest.of(0, limit));
+    }
+
+    /**
+     * 互动发生时增量更新热度（浏览量由 ViewCountService 定期批量写入）
+     */
+    @EventListener
+    @Transactional
+    public void onInteraction(PostInteractionEvent event) {
+        long delta = event.getDelta();
+        switch (event.getType()) {
+            case LIKE -> postHotScoreRepository.increment(event.getPostId(), 0, delta, 0, 0);
+            case COMMENT -> postHotScoreRepository.increment(event.getPostId(), 0, 0, delta, 0);
+            case FAVORITE -> postHotScoreRepository.increment(event.getPostId(), 0, 0, 0, delta);
+        }
+    }
+
+    /**
+     * 启动时若热度表为空则从源表初始化
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeIfEmpty() {
+        if (postHotScoreRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 定期从源表全量重建，修正计数漂移
+     */
+    @Scheduled(cron = "${app.recommendation.hot.rebuild-cron:0 30 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int rows = postHotScoreRepository.rebuildCounts();
+        postHotScoreRepository.rebuildScores();
+        logger.info("Rebuilt hot scores ({} rows affected) in {} ms", rows, System.currentTimeMillis() - start);
+    }
+}
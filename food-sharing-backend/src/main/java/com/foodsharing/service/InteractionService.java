@@ -0,0 +1,125 @@
+package com.foodsharing.service;
+
+import com.foodsharing.event.FollowEvent;
+import com.foodsharing.event.PostInteractionEvent;
+import com.foodsharing.repository.FavoriteRepository;
+import com.foodsharing.repository.FollowRepository;
+import com.foodsharing.repository.LikeRepository;
+import com.foodsharing.repository.PostRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 点赞、收藏、关注的写入：设置用 INSERT IGNORE、取消用条件 DELETE，
+ * 只有实际发生变化时才更新计数并发布事件，重复请求和并发请求都不会重复计数
+ */
+@Service
+public class InteractionService {
+
+    private final LikeRepository likeRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InteractionService(LikeRepository likeRepository,
+                              FavoriteRepository favoriteRepository,
+                              FollowRepository followRepository,
+                              PostRepository postRepository,
+                              ApplicationEventPublisher eventPublisher) {
+        this.likeRepository = likeRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 点赞，已点赞或内容不存在时不做修改
+     *
+     * @return 是否新增了点赞
+     */
+    @Transactional
+    public boolean like(Long userId, Long postId) {
+        if (likeRepository.insertIgnore(userId, postId) == 0) {
+            return false;
+        }
+        postRepository.incrementLikeCount(postId, 1);
+        eventPublisher.publishEvent(new PostInteractionEvent(postId, userId, PostInteractionEvent.Type.LIKE, 1));
+        return true;
+    }
+
+    /**
+     * 取消点赞
+     *
+     * @return 是否删除了点赞
+     */
+    @Transactional
+    public boolean unlike(Long userId, Long postId) {
+        if (likeRepository.deleteByUserIdAndPostId(userId, postId) == 0) {
+            return false;
+        }
+        postRepository.incrementLikeCount(postId, -1);
+        eventPublisher.publishEvent(new PostInteractionEvent(postId, userId, PostInteractionEvent.Type.LIKE, -1));
+        return true;
+    }
+
+    /**
+     * 切换点赞状态
+     *
+     * @return 切换后是否为已点赞
+     */
+    @Transactional
+    public boolean toggleLike(Long userId, Long postId) {
+        return !unlike(userId, postId) && like(userId, postId);
+    }
+
+    @Transactional
+    public boolean favorite(Long userId, Long postId) {
+        if (favoriteRepository.insertIgnore(userId, postId) == 0) {
+            return false;
+        }
+        postRepository.incrementFavoriteCount(postId, 1);
+        eventPublisher.publishEvent(new PostInteractionEvent(postId, userId, PostInteractionEvent.Type.FAVORITE, 1));
+        return true;
+    }
+
+    @Transactional
+    public boolean unfavorite(Long userId, Long postId) {
+        if (favoriteRepository.deleteByUserIdAndPostId(userId, postId) == 0) {
+            return false;
+        }
+        postRepository.incrementFavoriteCount(postId, -1);
+        eventPublisher.publishEvent(new PostInteractionEvent(postId, userId, PostInteractionEvent.Type.FAVORITE, -1));
+        return true;
+    }
+
+    @Transactional
+    public boolean toggleFavorite(Long userId, Long postId) {
+        return !unfavorite(userId, postId) && favorite(userId, postId);
+    }
+
+    @Transactional
+    public boolean follow(Long followerId, Long followingId) {
+        if (followRepository.insertIgnore(followerId, followingId) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new FollowEvent(followerId, followingId, true));
+        return true;
+    }
+
+    @Transactional
+    public boolean unfollow(Long followerId, Long followingId) {
+        if (followRepository.deleteByFollowerIdAndFollowingId(followerId, followingId) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new FollowEvent(followerId, followingId, false));
+        return true;
+    }
+
+    @Transactional
+    public boolean toggleFollow(Long followerId, Long followingId) {
+        return !unfollow(followerId, followingId) && follow(followerId, followingId);
+    }
+}
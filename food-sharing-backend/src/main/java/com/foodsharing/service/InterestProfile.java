@@ -0,0 +1,154 @@
+package com.foodsharing.service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 用户兴趣向量：分类和标签上的稀疏权重
+ * 一条内容对应的向量为 分类=1、每个标签=1/标签数，写入和打分使用同一套规则
+ * 权重按半衰期指数衰减，只在写入时把已有权重衰减到当前时间（同一用户的所有权重等比例缩放，不影响排序）
+ */
+public class InterestProfile {
+
+    // 低于该值的权重直接丢弃
+    private static final double MIN_WEIGHT = 0.01;
+
+    private final Map<Long, Double> categoryWeights = new HashMap<>();
+    private final Map<Long, Double> tagWeights = new HashMap<>();
+    private long updatedAtMillis;
+
+    public InterestProfile(long updatedAtMillis) {
+        this.updatedAtMillis = updatedAtMillis;
+    }
+
+    /**
+     * 累加一次互动（weight 为负时表示撤销，如取消点赞）
+     */
+    public synchronized void add(Long categoryId, Collection<Long> tagIds, double weight,
+                                 long nowMillis, double halfLifeMillis, int maxFeatures) {
+        if (nowMillis > updatedAtMillis) {
+            double factor = Math.pow(0.5, (nowMillis - updatedAtMillis) / halfLifeMillis);
+            scale(categoryWeights, factor);
+            scale(tagWeights, factor);
+            updatedAtMillis = nowMillis;
+        }
+        if (categoryId != null) {
+            accumulate(categoryWeights, categoryId, weight, maxFeatures);
+        }
+        if (!tagIds.isEmpty()) {
+            double perTag = weight / tagIds.size();
+            for (Long tagId : tagIds) {
+                accumulate(tagWeights, tagId, perTag, maxFeatures);
+            }
+        }
+    }
+
+    /**
+     * 与一条内容的向量做点积
+     */
+    public synchronized double dot(Long categoryId, Collection<Long> tagIds) {
+        double score = 0;
+        if (categoryId != null) {
+            score += categoryWeights.getOrDefault(categoryId, 0.0);
+        }
+        if (!tagIds.isEmpty()) {
+            double tagScore = 0;
+            for (Long tagId : tagIds) {
+                tagScore += tagWeights.getOrDefault(tagId, 0.0);
+            }
+            score += tagScore / tagIds.size();
+        }
+        return score;
+    }
+
+    public synchronized List<Long> topCategoryIds(int n) {
+        return top(categoryWeights, n);
+    }
+
+    public synchronized List<Long> topTagIds(int n) {
+        return top(tagWeights, n);
+    }
+
+    public synchronized double maxWeight() {
+        double max = 0;
+        for (double w : categoryWeights.values()) max = Math.max(max, w);
+        for (double w : tagWeights.values()) max = Math.max(max, w);
+        return max;
+    }
+
+    public synchronized long getUpdatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    /**
+     * 编码为 c12:3.5,t7:1.25 形式的文本
+     */
+    public synchronized String encode() {
+        StringBuilder sb = new StringBuilder();
+        appendEncoded(sb, 'c', categoryWeights);
+        appendEncoded(sb, 't', tagWeights);
+        return sb.toString();
+    }
+
+    public static InterestProfile decode(String encoded, long updatedAtMillis) {
+        InterestProfile profile = new InterestProfile(updatedAtMillis);
+        if (encoded == null || encoded.isEmpty()) {
+            return profile;
+        }
+        for (String entry : encoded.split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon < 2) {
+                continue;
+            }
+            try {
+                Long id = Long.parseLong(entry.substring(1, colon));
+                double weight = Double.parseDouble(entry.substring(colon + 1));
+                if (entry.charAt(0) == 'c') {
+                    profile.categoryWeights.put(id, weight);
+                } else if (entry.charAt(0) == 't') {
+                    profile.tagWeights.put(id, weight);
+                }
+            } catch (NumberFormatException ignored) {
+                // 忽略无法解析的条目
+            }
+        }
+        return profile;
+    }
+
+    private static void scale(Map<Long, Double> weights, double factor) {
+        weights.replaceAll((id, w) -> w * factor);
+        weights.values().removeIf(w -> w < MIN_WEIGHT);
+    }
+
+    private static void accumulate(Map<Long, Double> weights, Long id, double delta, int maxFeatures) {
+        double value = weights.getOrDefault(id, 0.0) + delta;
+        if (value < MIN_WEIGHT) {
+            weights.remove(id);
+            return;
+        }
+        weights.put(id, value);
+        if (weights.size() > maxFeatures) {
+            // 超出维度上限时淘汰权重最小的一项
+            Long weakest = Collections.min(weights.entrySet(), Map.Entry.comparingByValue()).getKey();
+            weights.remove(weakest);
+        }
+    }
+
+    private static List<Long> top(Map<Long, Double> weights, int n) {
+        return weights.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(n)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static void appendEncoded(StringBuilder sb, char prefix, Map<Long, Double> weights) {
+        for (Map.Entry<Long, Double> e : weights.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(prefix).append(e.getKey()).append(':')
+                    .append(Math.round(e.getValue() * 1000) / 1000.0);
+        }
+    }
+}
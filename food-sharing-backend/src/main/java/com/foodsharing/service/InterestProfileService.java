@@ -0,0 +1,241 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.UserInterestProfile;
+import com.foodsharing.event.PostInteractionEvent;
+import com.foodsharing.repository.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户兴趣画像服务：互动事件增量更新画像，内存中保留最近使用的画像，变更定期批量落库
+ * 没有画像记录的用户在首次访问时用最近的互动历史初始化一次
+ */
+@Service
+public class InterestProfileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestProfileService.class);
+
+    // 互动权重，与热度分数保持一致
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double LIKE_WEIGHT = 10.0;
+    private static final double COMMENT_WEIGHT = 5.0;
+    private static final double FAVORITE_WEIGHT = 8.0;
+
+    private final UserInterestProfileRepository profileRepository;
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final CommentRepository commentRepository;
+
+    private final double halfLifeMillis;
+    private final int historyLimit;
+    private final int maxFeatures;
+
+    private final Map<Long, InterestProfile> profiles;
+    private final Map<Long, PostFeatures> postFeatures;
+    // 有未落库变更的画像
+    private final Map<Long, InterestProfile> dirty = new ConcurrentHashMap<>();
+
+    public InterestProfileService(UserInterestProfileRepository profileRepository,
+                                  PostRepository postRepository,
+                                  LikeRepository likeRepository,
+                                  FavoriteRepository favoriteRepository,
+                                  CommentRepository commentRepository,
+                                  @Value("${app.recommendation.interest.half-life-days:14}") double halfLifeDays,
+                                  @Value("${app.recommendation.interest.history-limit:200}") int historyLimit,
+                                  @Value("${app.recommendation.interest.max-features:64}") int maxFeatures,
+                                  @Value("${app.recommendation.interest.cache-size:10000}") int cacheSize) {
+        this.profileRepository = profileRepository;
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.commentRepository = commentRepository;
+        this.halfLifeMillis = halfLifeDays * 24 * 3600 * 1000;
+        this.historyLimit = historyLimit;
+        this.maxFeatures = maxFeatures;
+        this.profiles = lruMap(cacheSize);
+        this.postFeatures = lruMap(cacheSize);
+    }
+
+    /**
+     * 获取用户兴趣画像（缓存命中时不访问数据库）
+     */
+    public InterestProfile getProfile(Long userId) {
+        InterestProfile profile = profiles.get(userId);
+        if (profile != null) {
+            return profile;
+        }
+        profile = dirty.get(userId);
+        if (profile == null) {
+            profile = profileRepository.findById(userId)
+                    .map(p -> InterestProfile.decode(p.getWeights(), toMillis(p.getUpdatedAt())))
+                    .orElseGet(() -> buildFromHistory(userId));
+        }
+        InterestProfile existing = profiles.putIfAbsent(userId, profile);
+        return existing != null ? existing : profile;
+    }
+
+    /**
+     * 批量获取内容的分类和标签
+     */
+    public Map<Long, PostFeatures> loadFeatures(Collection<Long> postIds) {
+        Map<Long, PostFeatures> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long postId : postIds) {
+            PostFeatures features = postFeatures.get(postId);
+            if (features != null) {
+                result.put(postId, features);
+            } else {
+                missing.add(postId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, PostFeatures> loaded = new HashMap<>();
+            for (Object[] row : postRepository.findPostFeatures(missing)) {
+                PostFeatures features = loaded.computeIfAbsent((Long) row[0], id -> new PostFeatures((Long) row[1]));
+                if (row[2] != null) {
+                    features.tagIds.add((Long) row[2]);
+                }
+            }
+            postFeatures.putAll(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onInteraction(PostInteractionEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        PostFeatures features = loadFeatures(List.of(event.getPostId())).get(event.getPostId());
+        if (features == null) {
+            return;
+        }
+        InterestProfile profile = getProfile(event.getUserId());
+        profile.add(features.categoryId, features.tagIds, weightOf(event.getType()) * event.getDelta(),
+                System.currentTimeMillis(), halfLifeMillis, maxFeatures);
+        dirty.put(event.getUserId(), profile);
+    }
+
+    /**
+     * 定期把有变更的画像批量写回数据库
+     */
+    @Scheduled(fixedDelayString = "${app.recommendation.interest.flush-ms:10000}")
+    @PreDestroy
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<UserInterestProfile> batch = new ArrayList<>();
+        Map<Long, InterestProfile> flushed = new HashMap<>();
+        for (Long userId : new ArrayList<>(dirty.keySet())) {
+            // 先移出再编码，编码之后的新变更会重新标记
+            InterestProfile profile = dirty.remove(userId);
+            if (profile == null) {
+                continue;
+            }
+            UserInterestProfile entity = new UserInterestProfile();
+            entity.setUserId(userId);
+            entity.setWeights(profile.encode());
+            entity.setUpdatedAt(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(profile.getUpdatedAtMillis()), ZoneId.systemDefault()));
+            batch.add(entity);
+            flushed.put(userId, profile);
+        }
+        try {
+            profileRepository.saveAll(batch);
+        } catch (RuntimeException e) {
+            // 写入失败时重新标记，下个周期重试；期间已重新标记的保留新的标记
+            flushed.forEach(dirty::putIfAbsent);
+            logger.warn("Failed to flush {} interest profiles, will retry", batch.size(), e);
+            return;
+        }
+        logger.debug("Flushed {} interest profiles", batch.size());
+    }
+
+    /**
+     * 用最近的点赞、收藏、评论记录初始化画像（浏览没有明细记录）
+     */
+    private InterestProfile buildFromHistory(Long userId) {
+        long now = System.currentTimeMillis();
+        InterestProfile profile = new InterestProfile(now);
+        PageRequest history = PageRequest.of(0, historyLimit);
+        List<Long> liked = likeRepository.findRecentPostIdsByUserId(userId, history);
+        List<Long> favorited = favoriteRepository.findRecentPostIdsByUserId(userId, history);
+        List<Long> commented = commentRepository.findRecentPostIdsByUserId(userId, history);
+
+        Set<Long> postIds = new HashSet<>(liked);
+        postIds.addAll(favorited);
+        postIds.addAll(commented);
+        if (postIds.isEmpty()) {
+            return profile;
+        }
+        Map<Long, PostFeatures> features = loadFeatures(postIds);
+        addAll(profile, liked, features, LIKE_WEIGHT, now);
+        addAll(profile, favorited, features, FAVORITE_WEIGHT, now);
+        addAll(profile, commented, features, COMMENT_WEIGHT, now);
+        dirty.put(userId, profile);
+        return profile;
+    }
+
+    private void addAll(InterestProfile profile, List<Long> postIds, Map<Long, PostFeatures> features,
+                        double weight, long now) {
+        for (Long postId : postIds) {
+            PostFeatures f = features.get(postId);
+            if (f != null) {
+                profile.add(f.categoryId, f.tagIds, weight, now, halfLifeMillis, maxFeatures);
+            }
+        }
+    }
+
+    private double weightOf(PostInteractionEvent.Type type) {
+        return switch (type) {
+            case VIEW -> VIEW_WEIGHT;
+            case LIKE -> LIKE_WEIGHT;
+            case COMMENT -> COMMENT_WEIGHT;
+            case FAVORITE -> FAVORITE_WEIGHT;
+        };
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * 一条内容的分类和标签（内容发布后不再修改，可以长期缓存）
+     */
+    public static class PostFeatures {
+        private final Long categoryId;
+        private final List<Long> tagIds = new ArrayList<>();
+
+        PostFeatures(Long categoryId) {
+            this.categoryId = categoryId;
+        }
+
+        public Long getCategoryId() { return categoryId; }
+
+        public List<Long> getTagIds() { return tagIds; }
+    }
+}
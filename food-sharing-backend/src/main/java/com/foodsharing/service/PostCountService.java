@@ -0,0 +1,35 @@
+package com.foodsharing.service;
+
+import com.foodsharing.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 内容互动计数校正：posts 上的点赞、评论、收藏数随写入在同一事务内增减，
+ * 删除用户等级联删除不经过这些路径，启动时和每天定时按源表重算修正偏差
+ */
+@Service
+public class PostCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCountService.class);
+
+    private final PostRepository postRepository;
+
+    public PostCountService(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.post-counts.reconcile-cron:0 45 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        int rows = postRepository.reconcileEngagementCounts();
+        logger.info("Reconciled engagement counts ({} posts corrected) in {} ms", rows, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,131 @@
+package com.foodsharing.service;
+
+import com.foodsharing.event.PostInteractionEvent;
+import com.foodsharing.event.PostLifecycleEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 推荐结果缓存：按 模式 + 条数 缓存已渲染的响应，带过期时间和条目数上限
+ * 失效通过每个模式的版本号实现：事件只递增版本号，读取时版本号不一致的条目视为失效
+ * - 内容发布、审核、删除：所有模式失效
+ * - 点赞、收藏、评论：热门（综合评分）失效
+ * - 浏览只影响浏览量排序，由过期时间兜底，避免高频浏览把缓存打穿
+ */
+@Service
+public class RecommendationCacheService {
+
+    public static final String POPULAR = "popular";
+    public static final String LATEST = "latest";
+    public static final String HOT = "hot";
+    public static final String TRENDING = "trending";
+
+    private static final List<String> MODES = List.of(POPULAR, LATEST, HOT, TRENDING);
+
+    private final long ttlMillis;
+    private final Map<String, CacheEntry> entries;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> misses = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> invalidations = new ConcurrentHashMap<>();
+
+    public RecommendationCacheService(@Value("${app.recommendation.cache.ttl-seconds:60}") long ttlSeconds,
+                                      @Value("${app.recommendation.cache.max-entries:200}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        for (String mode : MODES) {
+            versions.put(mode, new AtomicLong());
+            hits.put(mode, new LongAdder());
+            misses.put(mode, new LongAdder());
+            invalidations.put(mode, new LongAdder());
+        }
+    }
+
+    /**
+     * 读取缓存，未命中或已失效时调用 loader 计算并写入
+     */
+    public Map<String, Object> get(String mode, int limit, Supplier<Map<String, Object>> loader) {
+        String key = mode + ":" + limit;
+        long version = versions.get(mode).get();
+        long now = System.currentTimeMillis();
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.version == version && entry.expiresAt > now) {
+            hits.get(mode).increment();
+            return entry.value;
+        }
+        misses.get(mode).increment();
+        Map<String, Object> value = Collections.unmodifiableMap(loader.get());
+        // 计算期间若发生失效，写入的仍是旧版本号，下次读取时会重新计算
+        entries.put(key, new CacheEntry(value, version, now + ttlMillis));
+        return value;
+    }
+
+    // 提交后再失效，避免事务提交前的重新计算把旧数据写回缓存；不在事务中发布时立即处理
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostLifecycle(PostLifecycleEvent event) {
+        MODES.forEach(this::invalidate);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInteraction(PostInteractionEvent event) {
+        if (event.getType() != PostInteractionEvent.Type.VIEW) {
+            invalidate(HOT);
+        }
+    }
+
+    /**
+     * 各模式的命中、未命中、失效次数
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long totalHits = 0;
+        long totalMisses = 0;
+        for (String mode : MODES) {
+            long h = hits.get(mode).sum();
+            long m = misses.get(mode).sum();
+            Map<String, Object> modeStats = new LinkedHashMap<>();
+            modeStats.put("hits", h);
+            modeStats.put("misses", m);
+            modeStats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+            modeStats.put("invalidations", invalidations.get(mode).sum());
+            stats.put(mode, modeStats);
+            totalHits += h;
+            totalMisses += m;
+        }
+        stats.put("hits", totalHits);
+        stats.put("misses", totalMisses);
+        stats.put("hitRate", totalHits + totalMisses == 0 ? 0.0 : (double) totalHits / (totalHits + totalMisses));
+        stats.put("size", entries.size());
+        return stats;
+    }
+
+    private void invalidate(String mode) {
+        versions.get(mode).incrementAndGet();
+        invalidations.get(mode).increment();
+    }
+
+    private static class CacheEntry {
+        final Map<String, Object> value;
+        final long version;
+        final long expiresAt;
+
+        CacheEntry(Map<String, Object> value, long version, long expiresAt) {
+            this.value = value;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
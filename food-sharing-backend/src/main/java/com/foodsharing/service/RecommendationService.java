@@ -14,129 +14,93 @@ import java.util.stream.Collectors;
 @Service
 public class RecommendationService {
 
+    // 兴趣候选取画像中权重最高的分类数和标签数
+    private static final int INTEREST_CATEGORY_COUNT = 10;
+    private static final int INTEREST_TAG_COUNT = 20;
+    // 候选召回条数相对返回条数的倍数
+    private static final int CANDIDATE_OVERFETCH = 3;
+
     private final PostRepository postRepository;
-    private final LikeRepository likeRepository;
-    private final FavoriteRepository favoriteRepository;
-    private final FollowRepository followRepository;
-    private final CommentRepository commentRepository;
+    private final HotScoreService hotScoreService;
+    private final TrendingService trendingService;
+    private final GeoIndexService geoIndexService;
+    private final InterestProfileService interestProfileService;
+    private final SeenPostService seenPostService;
+    private final FeedService feedService;
 
     public RecommendationService(PostRepository postRepository,
-                                 LikeRepository likeRepository,
-                                 FavoriteRepository favoriteRepository,
-                                 FollowRepository followRepository,
-                                 CommentRepository commentRepository) {
+                                 HotScoreService hotScoreService,
+                                 TrendingService trendingService,
+                                 GeoIndexService geoIndexService,
+                                 InterestProfileService interestProfileService,
+                                 SeenPostService seenPostService,
+                                 FeedService feedService) {
         this.postRepository = postRepository;
-        this.likeRepository = likeRepository;
-        this.favoriteRepository = favoriteRepository;
-        this.commentRepository = commentRepository;
-        this.followRepository = followRepository;
+        this.hotScoreService = hotScoreService;
+        this.trendingService = trendingService;
+        this.geoIndexService = geoIndexService;
+        this.interestProfileService = interestProfileService;
+        this.seenPostService = seenPostService;
+        this.feedService = feedService;
     }
 
     /**
-     * 个性化推荐：基于用户行为
+     * 个性化推荐：基于用户兴趣画像
+     * 从关注动态、兴趣分类/标签、热门内容三路取候选，用已看过内容的布隆过滤器剔除浏览或互动过的内容，
+     * 再按与兴趣向量的点积统一排序；关注用户的内容额外加上画像中的最大权重
      */
     public List<Post> getPersonalizedRecommendations(User user, int limit) {
         if (user == null) {
             return getPopularPosts(limit);
         }
-
-        // 1. 获取用户点赞、收藏、评论过的内容
-        Set<Long> likedPostIds = likeRepository.findByUser(user).stream()
-                .map(l -> l.getPost().getId())
-                .collect(Collectors.toSet());
-        
-        Set<Long> favoritedPostIds = favoriteRepository.findByUser(user).stream()
-                .map(f -> f.getPost().getId())
-                .collect(Collectors.toSet());
-        
-        Set<Long> commentedPostIds = commentRepository.findByUser(user).stream()
-                .map(c -> c.getPost().getId())
-                .collect(Collectors.toSet());
-
-        Set<Long> interactedPostIds = new HashSet<>();
-        interactedPostIds.addAll(likedPostIds);
-        interactedPostIds.addAll(favoritedPostIds);
-        interactedPostIds.addAll(commentedPostIds);
-
-        // 2. 获取用户关注的人发布的内容
-        Set<Long> followingUserIds = followRepository.findByFollower(user).stream()
-                .map(f -> f.getFollowing().getId())
-                .collect(Collectors.toSet());
-
-        // 3. 基于分类和标签的推荐
-        Set<Long> categoryIds = new HashSet<>();
-        Set<Long> tagIds = new HashSet<>();
-        
-        for (Long postId : interactedPostIds) {
-            postRepository.findById(postId).ifPresent(post -> {
-                if (post.getCategory() != null) {
-                    categoryIds.add(post.getCategory().getId());
-                }
-                tagIds.addAll(post.getTags().stream()
-                        .map(t -> t.getId())
-                        .collect(Collectors.toSet()));
-            });
-        }
-
-        // 4. 获取推荐内容（排除已交互的内容）
-        List<Post> recommendations = new ArrayList<>();
-        
-        // 优先推荐关注用户的内容
-        if (!followingUserIds.isEmpty()) {
-            List<Post> followingPosts = postRepository.findByAuthorIdIn(
-                    followingUserIds, PageRequest.of(0, limit * 2)
-            ).getContent();
-            recommendations.addAll(followingPosts.stream()
-                    .filter(p -> !interactedPostIds.contains(p.getId()))
-                    .limit(Math.max(1, limit / 2))
-                    .collect(Collectors.toList()));
+        Long userId = user.getId();
+        InterestProfile profile = interestProfileService.getProfile(userId);
+
+        // 1. 召回候选（多取几倍，过滤已看过的内容后仍能补满），保持插入顺序去重（分数相同时按召回顺序）
+        int fetch = limit * CANDIDATE_OVERFETCH;
+        List<Long> followingIds = feedService.getRecentPostIds(userId, fetch);
+        Set<Long> recalled = new LinkedHashSet<>(followingIds);
+        List<Long> categoryIds = profile.topCategoryIds(INTEREST_CATEGORY_COUNT);
+        List<Long> tagIds = profile.topTagIds(INTEREST_TAG_COUNT);
+        if (!categoryIds.isEmpty() || !tagIds.isEmpty()) {
+            recalled.addAll(postRepository.findInterestCandidateIds(
+                    orNone(categoryIds), orNone(tagIds), PageRequest.of(0, fetch * 2)));
         }
-
-        // 基于分类推荐
-        if (!categoryIds.isEmpty() && recommendations.size() < limit) {
-            List<Post> categoryPosts = postRepository.findAll().stream()
-                    .filter(p -> p.getCategory() != null && categoryIds.contains(p.getCategory().getId()))
-                    .filter(p -> !interactedPostIds.contains(p.getId()))
-                    .sorted((a, b) -> Long.compare(b.getViewCount(), a.getViewCount()))
-                    .limit(limit - recommendations.size())
-                    .collect(Collectors.toList());
-            recommendations.addAll(categoryPosts);
-        }
-
-        // 如果还不够，补充热门内容
-        if (recommendations.size() < limit) {
-            List<Post> popularPosts = getPopularPosts(limit * 2);
-            popularPosts.stream()
-                    .filter(p -> !interactedPostIds.contains(p.getId()))
-                    .filter(p -> !recommendations.contains(p))
-                    .limit(limit - recommendations.size())
-                    .forEach(recommendations::add);
+        recalled.addAll(postRepository.findPopularCandidateIds(PageRequest.of(0, fetch)));
+        List<Long> candidateIds = seenPostService.filterUnseen(userId, recalled);
+        Set<Long> fromFollowing = new HashSet<>(followingIds);
+
+        // 2. 按兴趣向量打分排序
+        Map<Long, InterestProfileService.PostFeatures> features = interestProfileService.loadFeatures(candidateIds);
+        double followBoost = profile.maxWeight();
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long postId : candidateIds) {
+            InterestProfileService.PostFeatures f = features.get(postId);
+            double score = f != null ? profile.dot(f.getCategoryId(), f.getTagIds()) : 0;
+            if (fromFollowing.contains(postId)) {
+                score += followBoost;
+            }
+            scores.put(postId, score);
         }
+        List<Long> ranked = new ArrayList<>(candidateIds);
+        ranked.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
 
-        return recommendations.stream().distinct().limit(limit).collect(Collectors.toList());
+        return findAllByIdInOrder(ranked.subList(0, Math.min(limit, ranked.size())));
     }
 
     /**
-     * 基于地理位置的推荐
+     * 基于地理位置的推荐：从地理索引按距离由近到远取已审核通过的内容
+     *
+     * @param radiusKm 搜索半径（公里），为 null 时不限制
+     * @param page     页码，从 0 开始
      */
-    public List<Post> getLocationBasedRecommendations(Double lat, Double lng, int limit) {
+    public List<Post> getLocationBasedRecommendations(Double lat, Double lng, Double radiusKm, int page, int limit) {
         if (lat == null || lng == null) {
             return getPopularPosts(limit);
         }
-
-        // 简单实现：返回所有有位置信息的内容，按距离排序（这里简化处理）
-        List<Post> posts = postRepository.findAll().stream()
-                .filter(p -> p.getLat() != null && p.getLng() != null)
-                .sorted((a, b) -> {
-                    // 计算距离（简化版，实际应该使用Haversine公式）
-                    double distA = Math.sqrt(Math.pow(a.getLat() - lat, 2) + Math.pow(a.getLng() - lng, 2));
-                    double distB = Math.sqrt(Math.pow(b.getLat() - lat, 2) + Math.pow(b.getLng() - lng, 2));
-                    return Double.compare(distA, distB);
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
-
-        return posts;
+        // page 很大时 page * limit 会溢出，按 long 计算后封顶（超出已索引数量的页返回空）
+        int offset = (int) Math.min((long) page * limit, Integer.MAX_VALUE - limit);
+        return findAllByIdInOrder(geoIndexService.findNearest(lat, lng, radiusKm, offset, limit));
     }
 
     /**
@@ -153,29 +117,30 @@ public class RecommendationService {
     }
 
     /**
-     * 热门内容（综合评分）
+     * 热门内容（综合评分，读取预先维护的热度表）
      */
     public List<Post> getHotPosts(int limit) {
-        // 综合浏览量、点赞数、评论数、收藏数
-        List<Post> allPosts = postRepository.findAll();
-        
-        return allPosts.stream()
-                .map(post -> {
-                    long likeCount = likeRepository.countByPost(post);
-                    long commentCount = commentRepository.countByPost(post);
-                    long favoriteCount = favoriteRepository.countByPost(post);
-                    
-                    // 计算热度分数：浏览量*1 + 点赞*10 + 评论*5 + 收藏*8
-                    double score = post.getViewCount() * 1.0 +
-                                  likeCount * 10.0 +
-                                  commentCount * 5.0 +
-                                  favoriteCount * 8.0;
-                    
-                    return new AbstractMap.SimpleEntry<>(post, score);
-                })
-                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
+        List<Post> posts = findAllByIdInOrder(hotScoreService.getTopPostIds(limit));
+        if (posts.size() < limit) {
+            // 没有任何互动的内容不在热度表中，用热门内容补齐
+            Set<Long> included = posts.stream().map(Post::getId).collect(Collectors.toSet());
+            getPopularPosts(limit).stream()
+                    .filter(p -> !included.contains(p.getId()))
+                    .limit(limit - posts.size())
+                    .forEach(posts::add);
+        }
+        return posts;
+    }
+
+    /**
+     * 趋势内容（按时间衰减的近期互动排序）
+     */
+    public List<Post> getTrendingPosts(int limit) {
+        // 多取一些，过滤掉未审核通过的内容后仍能凑够数量
+        List<Post> posts = findAllByIdInOrder(trendingService.getTrendingPostIds(limit * 2));
+        return posts.stream()
+                .filter(p -> "APPROVED".equals(p.getStatus()))
                 .limit(limit)
-                .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
 
@@ -188,5 +153,26 @@ public class RecommendationService {
         );
         return page.getContent();
     }
-}
 
+    /**
+     * 按给定ID顺序批量加载内容
+     */
+    private List<Post> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Post> byId = postRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Post::getId, p -> p));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * IN 条件不接受空集合，用不存在的ID占位
+     */
+    private static Collection<Long> orNone(List<Long> ids) {
+        return ids.isEmpty() ? List.of(-1L) : ids;
+    }
+}
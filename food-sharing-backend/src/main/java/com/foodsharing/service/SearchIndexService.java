@@ -0,0 +1,470 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.event.PostLifecycleEvent;
+import com.foodsharing.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内容全文检索：对已审核通过内容的标题和正文建立内存倒排索引
+ * 中日韩文字按单字和相邻两字（bigram）建索引，其他文字按连续字母数字切词；
+ * 查询时中日韩文字按相邻两字切分（单字查询用单字），要求包含所有词项，按 BM25 打分，标题词频按权重放大
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final int LOAD_BATCH_SIZE = 2000;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_QUERY_TERMS = 16;
+
+    private final PostRepository postRepository;
+    private final int titleBoost;
+    private final int maxHits;
+
+    private final Map<String, Postings> index = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    private volatile boolean ready;
+
+    public SearchIndexService(PostRepository postRepository,
+                              @Value("${app.search.title-boost:3}") int titleBoost,
+                              @Value("${app.search.max-hits:1000}") int maxHits) {
+        this.postRepository = postRepository;
+        this.titleBoost = titleBoost;
+        this.maxHits = maxHits;
+    }
+
+    /**
+     * 启动时分批加载已审核通过的内容
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<Object[]> rows = postRepository.findApprovedTextAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    put((Long) row[0], (String) row[1], (String) row[2]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded += rows.size();
+            if (rows.size() < LOAD_BATCH_SIZE) {
+                break;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        ready = true;
+        logger.info("Search index loaded {} posts, {} terms in {} ms",
+                loaded, index.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 发布（已是审核通过状态时）和审核通过时加入索引，拒绝或删除时移出
+     */
+    @EventListener
+    public void onPostLifecycle(PostLifecycleEvent event) {
+        Post post = event.getPost();
+        lock.writeLock().lock();
+        try {
+            switch (event.getAction()) {
+                case CREATED, APPROVED -> {
+                    if ("APPROVED".equals(post.getStatus())) {
+                        put(post.getId(), post.getTitle(), post.getContent());
+                    }
+                }
+                case REJECTED, DELETED -> remove(post.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 按相关度返回一页结果
+     *
+     * @param offset 跳过的条数（分页）
+     * @param limit  返回条数
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty()) {
+            return new SearchResult(List.of(), 0, terms);
+        }
+        if (offset < 0 || limit <= 0) {
+            return new SearchResult(List.of(), 0, terms);
+        }
+        // 调用方保证 offset + limit 不溢出时 k 即为所需条数，溢出时按最大值处理
+        int k = offset + limit > 0 ? offset + limit : Integer.MAX_VALUE;
+        PriorityQueue<Hit> heap;
+        int total;
+
+        lock.readLock().lock();
+        try {
+            Map<Long, double[]> matched = match(terms);
+            total = matched.size();
+            if (offset >= total) {
+                return new SearchResult(List.of(), total, terms);
+            }
+            // 小顶堆，堆顶是当前第 k 高分的候选；容量不超过命中数
+            heap = new PriorityQueue<>(Math.min(k, total) + 1, Comparator.comparingDouble(Hit::getScore));
+            for (Map.Entry<Long, double[]> e : matched.entrySet()) {
+                double score = e.getValue()[0];
+                if (heap.size() < k) {
+                    heap.offer(new Hit(e.getKey(), score));
+                } else if (score > heap.peek().getScore()) {
+                    heap.poll();
+                    heap.offer(new Hit(e.getKey(), score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> sorted = new ArrayList<>(heap);
+        sorted.sort(Comparator.comparingDouble(Hit::getScore).reversed()
+                .thenComparing(Hit::getPostId, Comparator.reverseOrder()));
+        List<Hit> hits = offset < sorted.size() ? sorted.subList(offset, sorted.size()) : List.of();
+        return new SearchResult(new ArrayList<>(hits), total, terms);
+    }
+
+    /**
+     * 可能以子串形式包含查询的内容ID，供列表接口的关键词过滤缩小 LIKE 的范围。
+     * 只有查询全部由中日韩文字组成时索引能保证不漏（英文等按整词索引，无法匹配前缀和子串），
+     * 其他查询或候选超过 max-hits 条时返回 null，由调用方直接用 LIKE 匹配
+     */
+    public List<Long> substringCandidates(String query) {
+        List<String> terms = queryTerms(query);
+        // 启动加载完成前索引不完整
+        if (!ready || terms.isEmpty()) {
+            return null;
+        }
+        for (String term : terms) {
+            if (!isCjk(term.codePointAt(0))) {
+                return null;
+            }
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, double[]> matched = match(terms);
+            return matched.size() > maxHits ? null : new ArrayList<>(matched.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 生成高亮片段：命中的词项用 &lt;em&gt; 包裹，其余字符做 HTML 转义
+     *
+     * @param maxLength 片段最大长度，超出时截取第一个命中位置附近的内容
+     */
+    public static String highlight(String text, List<String> terms, int maxLength) {
+        if (text == null) {
+            return null;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        if (lower.length() != text.length()) {
+            lower = text;
+        }
+        boolean[] marks = new boolean[text.length()];
+        int first = -1;
+        for (String term : terms) {
+            for (int i = lower.indexOf(term); i >= 0; i = lower.indexOf(term, i + 1)) {
+                Arrays.fill(marks, i, i + term.length(), true);
+                if (first < 0 || i < first) {
+                    first = i;
+                }
+            }
+        }
+
+        int start = 0;
+        if (text.length() > maxLength && first > maxLength / 4) {
+            start = Math.min(first - maxLength / 4, text.length() - maxLength);
+        }
+        int end = Math.min(text.length(), start + maxLength);
+        StringBuilder sb = new StringBuilder(end - start + 16);
+        if (start > 0) {
+            sb.append("…");
+        }
+        boolean open = false;
+        for (int i = start; i < end; i++) {
+            if (marks[i] != open) {
+                sb.append(open ? "</em>" : "<em>");
+                open = marks[i];
+            }
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                default -> sb.append(c);
+            }
+        }
+        if (open) {
+            sb.append("</em>");
+        }
+        if (end < text.length()) {
+            sb.append("…");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 建索引用的切词：中日韩文字连续段输出每个单字和相邻两字，其他字母数字连续段整体作为一个词，统一转小写
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 切词，unigrams 为 false 时中日韩文字只输出相邻两字（单字段输出单字）
+     */
+    private static List<String> tokenize(String text, boolean unigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int wordStart = -1;
+        int cjkStart = -1;
+        int i = 0;
+        while (i <= lower.length()) {
+            int cp = i < lower.length() ? lower.codePointAt(i) : ' ';
+            boolean cjk = isCjk(cp);
+            boolean word = !cjk && Character.isLetterOrDigit(cp);
+            if (!word && wordStart >= 0) {
+                tokens.add(lower.substring(wordStart, i));
+                wordStart = -1;
+            }
+            if (!cjk && cjkStart >= 0) {
+                addNgrams(lower, cjkStart, i, unigrams, tokens);
+                cjkStart = -1;
+            }
+            if (word && wordStart < 0) {
+                wordStart = i;
+            }
+            if (cjk && cjkStart < 0) {
+                cjkStart = i;
+            }
+            i += i < lower.length() ? Character.charCount(cp) : 1;
+        }
+        return tokens;
+    }
+
+    private static void addNgrams(String text, int start, int end, boolean unigrams, List<String> tokens) {
+        int first = start;
+        int second = first + Character.charCount(text.codePointAt(first));
+        if (second >= end) {
+            tokens.add(text.substring(first, end));
+            return;
+        }
+        while (second < end) {
+            int next = second + Character.charCount(text.codePointAt(second));
+            if (unigrams) {
+                tokens.add(text.substring(first, second));
+            }
+            tokens.add(text.substring(first, next));
+            first = second;
+            second = next;
+        }
+        if (unigrams) {
+            tokens.add(text.substring(first, end));
+        }
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    private static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query, false)));
+        return terms.size() > MAX_QUERY_TERMS ? terms.subList(0, MAX_QUERY_TERMS) : terms;
+    }
+
+    /**
+     * 包含全部词项的文档及其 BM25 得分；调用方需持有读锁
+     */
+    private Map<Long, double[]> match(List<String> terms) {
+        List<Postings> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Postings postings = index.get(term);
+            if (postings == null) {
+                return Map.of();
+            }
+            lists.add(postings);
+        }
+        // 从最短的倒排表开始，后续只在已有候选上累加
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        int n = docs.size();
+        double avgLength = n == 0 ? 1 : Math.max(1.0, (double) totalLength / n);
+
+        Map<Long, double[]> scores = new HashMap<>();
+        Postings shortest = lists.get(0);
+        double idf = idf(n, shortest.size);
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            scores.put(id, new double[]{bm25(shortest.tfs[i], docs.get(id).length, avgLength, idf)});
+        }
+        for (int t = 1; t < lists.size() && !scores.isEmpty(); t++) {
+            Postings postings = lists.get(t);
+            idf = idf(n, postings.size);
+            Map<Long, double[]> next = new HashMap<>();
+            for (int i = 0; i < postings.size; i++) {
+                double[] score = scores.get(postings.ids[i]);
+                if (score != null) {
+                    score[0] += bm25(postings.tfs[i], docs.get(postings.ids[i]).length, avgLength, idf);
+                    next.put(postings.ids[i], score);
+                }
+            }
+            scores = next;
+        }
+        return scores;
+    }
+
+    private static double idf(int n, int df) {
+        return Math.log(1 + (n - df + 0.5) / (df + 0.5));
+    }
+
+    private static double bm25(int tf, int length, double avgLength, double idf) {
+        return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+    }
+
+    private void put(Long postId, String title, String content) {
+        remove(postId);
+        Map<String, Integer> tfs = new HashMap<>();
+        int length = 0;
+        for (String token : tokenize(title)) {
+            tfs.merge(token, titleBoost, Integer::sum);
+            length += titleBoost;
+        }
+        for (String token : tokenize(content)) {
+            tfs.merge(token, 1, Integer::sum);
+            length++;
+        }
+        for (Map.Entry<String, Integer> e : tfs.entrySet()) {
+            index.computeIfAbsent(e.getKey(), key -> new Postings()).add(postId, e.getValue());
+        }
+        docs.put(postId, new Doc(tfs.keySet().toArray(new String[0]), length));
+        totalLength += length;
+    }
+
+    private void remove(Long postId) {
+        Doc doc = docs.remove(postId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Postings postings = index.get(term);
+            if (postings != null && postings.remove(postId) && postings.size == 0) {
+                index.remove(term);
+            }
+        }
+        totalLength -= doc.length;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static class SearchResult {
+        private final List<Hit> hits;
+        private final int total;
+        private final List<String> terms;
+
+        SearchResult(List<Hit> hits, int total, List<String> terms) {
+            this.hits = hits;
+            this.total = total;
+            this.terms = terms;
+        }
+
+        public List<Hit> getHits() { return hits; }
+
+        public int getTotal() { return total; }
+
+        /** 查询切出的词项，用于高亮 */
+        public List<String> getTerms() { return terms; }
+    }
+
+    public static class Hit {
+        private final long postId;
+        private final double score;
+
+        Hit(long postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+
+        public long getPostId() { return postId; }
+
+        public double getScore() { return score; }
+    }
+
+    private static class Doc {
+        final String[] terms;
+        final int length;
+
+        Doc(String[] terms, int length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    /**
+     * 单个词项的倒排表，用并行数组存储以减少对象开销
+     */
+    private static class Postings {
+        long[] ids = new long[4];
+        int[] tfs = new int[4];
+        int size;
+
+        void add(long id, int tf) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            ids[size] = id;
+            tfs[size] = tf;
+            size++;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    tfs[i] = tfs[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
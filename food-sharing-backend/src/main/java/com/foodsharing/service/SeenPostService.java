@@ -0,0 +1,140 @@
+package com.foodsharing.service;
+
+import com.foodsharing.event.PostInteractionEvent;
+import com.foodsharing.repository.CommentRepository;
+import com.foodsharing.repository.FavoriteRepository;
+import com.foodsharing.repository.LikeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 用户已看过内容集合：每个用户一个布隆过滤器，记录浏览和互动过的内容ID，用于推荐候选的预过滤
+ * 过滤器分新旧两代，当前代写满容量后旧代被丢弃，单用户内存固定；只保留最近活跃的用户
+ * 布隆过滤器有少量误判（未看过的内容被判为看过），不会漏判
+ */
+@Service
+public class SeenPostService {
+
+    private final LikeRepository likeRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final CommentRepository commentRepository;
+
+    private final int capacity;
+    private final int numBits;
+    private final int numHashes;
+    private final Map<Long, SeenSet> seenSets;
+
+    public SeenPostService(LikeRepository likeRepository,
+                           FavoriteRepository favoriteRepository,
+                           CommentRepository commentRepository,
+                           @Value("${app.recommendation.seen.capacity:2000}") int capacity,
+                           @Value("${app.recommendation.seen.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${app.recommendation.seen.cache-size:5000}") int cacheSize) {
+        this.likeRepository = likeRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.commentRepository = commentRepository;
+        this.capacity = capacity;
+        // m = -n·ln(p) / (ln2)^2，k = m/n·ln2
+        this.numBits = (int) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+        this.seenSets = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SeenSet> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * 过滤掉用户看过的内容，保持原有顺序
+     */
+    public List<Long> filterUnseen(Long userId, Collection<Long> postIds) {
+        SeenSet seen = getSeenSet(userId);
+        return postIds.stream()
+                .filter(id -> !seen.mightContain(id))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener
+    public void onInteraction(PostInteractionEvent event) {
+        if (event.getUserId() == null || event.getDelta() <= 0) {
+            return;
+        }
+        getSeenSet(event.getUserId()).add(event.getPostId());
+    }
+
+    private SeenSet getSeenSet(Long userId) {
+        SeenSet seen = seenSets.get(userId);
+        if (seen != null) {
+            return seen;
+        }
+        // 首次访问时用最近的互动记录初始化（浏览没有明细记录，从此刻开始累积）
+        // 每类最多取半个容量，合计不超过两代的总容量
+        seen = new SeenSet();
+        PageRequest recent = PageRequest.of(0, Math.max(1, capacity / 2));
+        likeRepository.findRecentPostIdsByUserId(userId, recent).forEach(seen::add);
+        favoriteRepository.findRecentPostIdsByUserId(userId, recent).forEach(seen::add);
+        commentRepository.findRecentPostIdsByUserId(userId, recent).forEach(seen::add);
+        SeenSet existing = seenSets.putIfAbsent(userId, seen);
+        return existing != null ? existing : seen;
+    }
+
+    /**
+     * 两代布隆过滤器
+     */
+    private class SeenSet {
+        private long[] current = new long[(numBits + 63) / 64];
+        private long[] previous;
+        private int currentCount;
+
+        synchronized void add(long postId) {
+            if (contains(current, postId)) {
+                return;
+            }
+            if (currentCount >= capacity) {
+                previous = current;
+                current = new long[previous.length];
+                currentCount = 0;
+            }
+            long h = mix(postId);
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32);
+            for (int i = 0; i < numHashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, numBits);
+                current[bit >>> 6] |= 1L << bit;
+            }
+            currentCount++;
+        }
+
+        synchronized boolean mightContain(long postId) {
+            return contains(current, postId) || (previous != null && contains(previous, postId));
+        }
+
+        private boolean contains(long[] bits, long postId) {
+            long h = mix(postId);
+            int h1 = (int) h;
+            int h2 = (int) (h >>> 32);
+            for (int i = 0; i < numHashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, numBits);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 64 位混合函数（SplitMix64 的终结步骤），把连续ID打散
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -0,0 +1,185 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.entity.SystemConfig;
+import com.foodsharing.event.PostLifecycleEvent;
+import com.foodsharing.repository.PostRepository;
+import com.foodsharing.repository.PostSimilarityRepository;
+import com.foodsharing.repository.SystemConfigRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 相似内容服务：离线计算每条内容的前 N 个相似内容
+ * 相似度 = 共同互动用户的余弦相似度 + 内容相似度权重 * (同分类 + 标签 Jaccard) / 2
+ * 首次运行全量计算，之后只重算上次运行以来有新互动、新发布或新审核通过的内容
+ */
+@Service
+public class SimilarPostService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarPostService.class);
+
+    private static final String WATERMARK_KEY = "recommendation.similar.watermark";
+    private static final int BATCH_SIZE = 500;
+    // 每条内容参与打分的候选数上限
+    private static final int CANDIDATE_LIMIT = 200;
+
+    private final PostSimilarityRepository similarityRepository;
+    private final PostRepository postRepository;
+    private final SystemConfigRepository systemConfigRepository;
+    private final InterestProfileService interestProfileService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int topN;
+    private final double contentWeight;
+
+    // 审核通过后等待下次计算的内容（审核时间晚于发布时间，不会被增量查询覆盖）
+    private final Set<Long> pendingPostIds = ConcurrentHashMap.newKeySet();
+
+    public SimilarPostService(PostSimilarityRepository similarityRepository,
+                              PostRepository postRepository,
+                              SystemConfigRepository systemConfigRepository,
+                              InterestProfileService interestProfileService,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.recommendation.similar.top-n:20}") int topN,
+                              @Value("${app.recommendation.similar.content-weight:0.3}") double contentWeight) {
+        this.similarityRepository = similarityRepository;
+        this.postRepository = postRepository;
+        this.systemConfigRepository = systemConfigRepository;
+        this.interestProfileService = interestProfileService;
+        this.transactionTemplate = transactionTemplate;
+        this.topN = topN;
+        this.contentWeight = contentWeight;
+    }
+
+    /**
+     * 读取相似内容
+     */
+    public List<Post> getSimilarPosts(Long postId, int limit) {
+        return similarityRepository.findSimilarPosts(postId, PageRequest.of(0, Math.min(limit, topN)));
+    }
+
+    @EventListener
+    public void onPostLifecycle(PostLifecycleEvent event) {
+        if (event.getAction() == PostLifecycleEvent.Action.APPROVED) {
+            pendingPostIds.add(event.getPost().getId());
+        }
+    }
+
+    /**
+     * 定期增量重建
+     */
+    @Scheduled(cron = "${app.recommendation.similar.rebuild-cron:0 15 * * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime runStartedAt = LocalDateTime.now();
+        SystemConfig watermark = systemConfigRepository.findByConfigKey(WATERMARK_KEY).orElse(null);
+
+        int processed = 0;
+        if (watermark == null) {
+            pendingPostIds.clear();
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = postRepository.findApprovedIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+                ids.forEach(this::recompute);
+                processed += ids.size();
+                if (ids.size() < BATCH_SIZE) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            watermark = new SystemConfig();
+            watermark.setConfigKey(WATERMARK_KEY);
+            watermark.setDescription("相似内容增量计算的时间水位");
+        } else {
+            Set<Long> changed = new LinkedHashSet<>(
+                    similarityRepository.findPostIdsChangedSince(LocalDateTime.parse(watermark.getConfigValue())));
+            for (Iterator<Long> it = pendingPostIds.iterator(); it.hasNext(); ) {
+                changed.add(it.next());
+                it.remove();
+            }
+            changed.forEach(this::recompute);
+            processed = changed.size();
+        }
+
+        // 水位取本次开始时间，运行期间产生的互动留到下次处理
+        watermark.setConfigValue(runStartedAt.toString());
+        watermark.setUpdatedAt(LocalDateTime.now());
+        systemConfigRepository.save(watermark);
+        logger.info("Rebuilt similar posts for {} posts in {} ms", processed, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 重算单条内容的相似内容并替换原有记录
+     */
+    private void recompute(Long postId) {
+        Map<Long, Long> coUsers = toCountMap(similarityRepository.findCoEngagedPosts(postId, CANDIDATE_LIMIT));
+        Map<Long, Long> sharedTags = toCountMap(similarityRepository.findTagOverlapPosts(postId, CANDIDATE_LIMIT));
+
+        Set<Long> candidates = new HashSet<>(coUsers.keySet());
+        candidates.addAll(sharedTags.keySet());
+        List<Map.Entry<Long, Double>> scored = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            Set<Long> lookup = new HashSet<>(candidates);
+            lookup.add(postId);
+            Map<Long, InterestProfileService.PostFeatures> features = interestProfileService.loadFeatures(lookup);
+            Map<Long, Long> engaged = coUsers.isEmpty() ? Map.of() : toCountMap(similarityRepository.countEngagedUsers(lookup));
+            InterestProfileService.PostFeatures self = features.get(postId);
+            long selfEngaged = engaged.getOrDefault(postId, 0L);
+
+            for (Long candidate : candidates) {
+                double score = 0;
+                long co = coUsers.getOrDefault(candidate, 0L);
+                long otherEngaged = engaged.getOrDefault(candidate, 0L);
+                if (co > 0 && selfEngaged > 0 && otherEngaged > 0) {
+                    score += co / Math.sqrt((double) selfEngaged * otherEngaged);
+                }
+                score += contentWeight * contentSimilarity(self, features.get(candidate), sharedTags.getOrDefault(candidate, 0L));
+                if (score > 0) {
+                    scored.add(new AbstractMap.SimpleEntry<>(candidate, score));
+                }
+            }
+            scored.sort(Map.Entry.<Long, Double>comparingByValue().reversed());
+        }
+
+        List<Map.Entry<Long, Double>> top = scored.subList(0, Math.min(topN, scored.size()));
+        transactionTemplate.executeWithoutResult(status -> {
+            similarityRepository.deleteByPostId(postId);
+            for (Map.Entry<Long, Double> e : top) {
+                similarityRepository.insert(postId, e.getKey(), e.getValue());
+            }
+        });
+    }
+
+    /**
+     * 内容相似度：同分类得 1 分，标签按 Jaccard 系数计分，取平均
+     */
+    private double contentSimilarity(InterestProfileService.PostFeatures a, InterestProfileService.PostFeatures b,
+                                     long sharedTags) {
+        if (a == null || b == null) {
+            return 0;
+        }
+        double category = a.getCategoryId() != null && a.getCategoryId().equals(b.getCategoryId()) ? 1 : 0;
+        long union = a.getTagIds().size() + b.getTagIds().size() - sharedTags;
+        double tags = union > 0 ? (double) sharedTags / union : 0;
+        return (category + tags) / 2;
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
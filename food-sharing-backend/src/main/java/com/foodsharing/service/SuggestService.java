@@ -0,0 +1,328 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.event.PostLifecycleEvent;
+import com.foodsharing.repository.CategoryRepository;
+import com.foodsharing.repository.MerchantRepository;
+import com.foodsharing.repository.PostRepository;
+import com.foodsharing.repository.TagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 搜索联想：内容标题、标签、分类、商家名称放进同一棵前缀树，
+ * 每个节点保存该前缀下热度最高的若干条，查询只需沿前缀走到对应节点
+ * 热度：内容为浏览量，标签和分类为已审核通过的内容数，商家为评价数
+ * 新增和删除实时更新；删除后节点的候选可能不足，热度变化也不实时反映，由定时全量重建修正
+ */
+@Service
+public class SuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestService.class);
+
+    public static final String POST = "post";
+    public static final String TAG = "tag";
+    public static final String CATEGORY = "category";
+    public static final String MERCHANT = "merchant";
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final PostRepository postRepository;
+    private final TagRepository tagRepository;
+    private final CategoryRepository categoryRepository;
+    private final MerchantRepository merchantRepository;
+    private final int topK;
+    private final int maxDepth;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Trie trie;
+    // 全量重建期间的增量变更，重建完成后在新树上重放
+    private List<Consumer<Trie>> pendingChanges;
+
+    public SuggestService(PostRepository postRepository,
+                          TagRepository tagRepository,
+                          CategoryRepository categoryRepository,
+                          MerchantRepository merchantRepository,
+                          @Value("${app.search.suggest.top-k:10}") int topK,
+                          @Value("${app.search.suggest.max-depth:20}") int maxDepth) {
+        this.postRepository = postRepository;
+        this.tagRepository = tagRepository;
+        this.categoryRepository = categoryRepository;
+        this.merchantRepository = merchantRepository;
+        this.topK = topK;
+        this.maxDepth = maxDepth;
+        this.trie = new Trie(topK, maxDepth);
+    }
+
+    /**
+     * 前缀联想，按热度倒序
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.find(key, Math.min(limit, topK));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或更新一条候选（名称变化时会先移除旧名称）
+     */
+    public void put(String type, Long id, String text, long weight) {
+        if (text == null || normalize(text).isEmpty()) {
+            remove(type, id);
+            return;
+        }
+        Suggestion suggestion = new Suggestion(type, id, text.trim(), weight);
+        apply(t -> t.put(suggestion));
+    }
+
+    public void remove(String type, Long id) {
+        apply(t -> t.remove(type + ":" + id));
+    }
+
+    /**
+     * 审核通过时加入内容标题，拒绝或删除时移除
+     */
+    @EventListener
+    public void onPostLifecycle(PostLifecycleEvent event) {
+        Post post = event.getPost();
+        switch (event.getAction()) {
+            case CREATED, APPROVED -> {
+                if ("APPROVED".equals(post.getStatus())) {
+                    put(POST, post.getId(), post.getTitle(), post.getViewCount() == null ? 0 : post.getViewCount());
+                }
+            }
+            case REJECTED, DELETED -> remove(POST, post.getId());
+        }
+    }
+
+    /**
+     * 从各表全量重建，启动时和定时执行，修正热度变化
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.suggest.rebuild-ms:600000}", initialDelayString = "${app.search.suggest.rebuild-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Trie fresh = new Trie(topK, maxDepth);
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Object[]> rows = postRepository.findApprovedTitlesAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    fresh.put(suggestion(POST, row));
+                }
+                if (rows.size() < LOAD_BATCH_SIZE) {
+                    break;
+                }
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+            Map<Long, Long> tagCounts = toCountMap(postRepository.countApprovedPostsByTag());
+            tagRepository.findAll().forEach(t ->
+                    fresh.put(new Suggestion(TAG, t.getId(), t.getName(), tagCounts.getOrDefault(t.getId(), 0L))));
+            Map<Long, Long> categoryCounts = toCountMap(postRepository.countApprovedPostsByCategory());
+            categoryRepository.findAll().forEach(c ->
+                    fresh.put(new Suggestion(CATEGORY, c.getId(), c.getName(), categoryCounts.getOrDefault(c.getId(), 0L))));
+            for (Object[] row : merchantRepository.findActiveNames()) {
+                fresh.put(suggestion(MERCHANT, row));
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            trie = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Suggest index rebuilt with {} entries in {} ms", fresh.entries.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(Consumer<Trie> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(trie);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Suggestion suggestion(String type, Object[] row) {
+        Number weight = (Number) row[2];
+        return new Suggestion(type, (Long) row[0], ((String) row[1]).trim(), weight == null ? 0 : weight.longValue());
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static class Suggestion {
+        private final String type;
+        private final Long id;
+        private final String text;
+        private final long weight;
+        final String key;
+        final String normalized;
+
+        Suggestion(String type, Long id, String text, long weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+            this.key = type + ":" + id;
+            this.normalized = normalize(text);
+        }
+
+        public String getType() { return type; }
+
+        public Long getId() { return id; }
+
+        public String getText() { return text; }
+
+        public long getWeight() { return weight; }
+    }
+
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator.comparingLong(Suggestion::getWeight).reversed()
+            .thenComparing(s -> s.normalized.length())
+            .thenComparing(s -> s.key);
+
+    /**
+     * 前缀树：超过 maxDepth 的部分不再建节点，查询时在最深节点的候选里按完整前缀过滤
+     */
+    private static class Trie {
+        final Node root = new Node();
+        final Map<String, Suggestion> entries = new HashMap<>();
+        final int topK;
+        final int maxDepth;
+
+        Trie(int topK, int maxDepth) {
+            this.topK = topK;
+            this.maxDepth = maxDepth;
+        }
+
+        void put(Suggestion suggestion) {
+            remove(suggestion.key);
+            if (suggestion.normalized.isEmpty()) {
+                return;
+            }
+            entries.put(suggestion.key, suggestion);
+            Node node = root;
+            int depth = Math.min(maxDepth, suggestion.normalized.length());
+            for (int i = 0; i < depth; i++) {
+                node = node.children.computeIfAbsent(suggestion.normalized.charAt(i), c -> new Node());
+                node.offer(suggestion, topK);
+            }
+        }
+
+        void remove(String key) {
+            Suggestion old = entries.remove(key);
+            if (old == null) {
+                return;
+            }
+            Node node = root;
+            int depth = Math.min(maxDepth, old.normalized.length());
+            for (int i = 0; i < depth && node != null; i++) {
+                node = node.children.get(old.normalized.charAt(i));
+                if (node != null) {
+                    node.drop(key);
+                }
+            }
+        }
+
+        List<Suggestion> find(String prefix, int limit) {
+            Node node = root;
+            int depth = Math.min(maxDepth, prefix.length());
+            for (int i = 0; i < depth && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<Suggestion> result = new ArrayList<>(limit);
+            for (Suggestion s : node.top) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (depth == prefix.length() || s.normalized.startsWith(prefix)) {
+                    result.add(s);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        // 该前缀下热度最高的候选，有序
+        Suggestion[] top = new Suggestion[0];
+
+        void offer(Suggestion suggestion, int topK) {
+            if (top.length == topK && BY_WEIGHT.compare(suggestion, top[topK - 1]) >= 0) {
+                return;
+            }
+            int pos = Arrays.binarySearch(top, suggestion, BY_WEIGHT);
+            pos = pos >= 0 ? pos : -pos - 1;
+            int length = Math.min(topK, top.length + 1);
+            Suggestion[] next = new Suggestion[length];
+            System.arraycopy(top, 0, next, 0, pos);
+            next[pos] = suggestion;
+            System.arraycopy(top, pos, next, pos + 1, length - pos - 1);
+            top = next;
+        }
+
+        void drop(String key) {
+            for (int i = 0; i < top.length; i++) {
+                if (top[i].key.equals(key)) {
+                    Suggestion[] next = new Suggestion[top.length - 1];
+                    System.arraycopy(top, 0, next, 0, i);
+                    System.arraycopy(top, i + 1, next, i, top.length - i - 1);
+                    top = next;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,38 +1,49 @@
 package com.foodsharing.service;
 
 import com.foodsharing.entity.SystemLog;
-import com.foodsharing.repository.SystemLogRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+/**
+ * 系统日志：在调用线程上取出用户名、IP 等请求信息，写入交给 SystemLogWriter 异步批量完成
+ */
 @Service
 public class SystemLogService {
-    private final SystemLogRepository systemLogRepository;
+    // 与 system_logs 列长度一致，超长部分截断（IP 等来自客户端请求头）
+    private static final int LEVEL_LENGTH = 50;
+    private static final int MODULE_LENGTH = 100;
+    private static final int ACTION_LENGTH = 255;
+    private static final int USERNAME_LENGTH = 50;
+    private static final int IP_LENGTH = 50;
+    // TEXT 列最多 65535 字节，按 utf8mb4 每字符 4 字节计
+    private static final int MESSAGE_LENGTH = 16000;
 
-    public SystemLogService(SystemLogRepository systemLogRepository) {
-        this.systemLogRepository = systemLogRepository;
+    private final SystemLogWriter systemLogWriter;
+
+    public SystemLogService(SystemLogWriter systemLogWriter) {
+        this.systemLogWriter = systemLogWriter;
     }
 
     public void log(String level, String module, String action, String message, HttpServletRequest request) {
         SystemLog log = new SystemLog();
-        log.setLevel(level);
-        log.setModule(module);
-        log.setAction(action);
-        log.setMessage(message);
+        log.setLevel(truncate(level, LEVEL_LENGTH));
+        log.setModule(truncate(module, MODULE_LENGTH));
+        log.setAction(truncate(action, ACTION_LENGTH));
+        log.setMessage(truncate(message, MESSAGE_LENGTH));
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
-            log.setUsername(authentication.getName());
+            log.setUsername(truncate(authentication.getName(), USERNAME_LENGTH));
         }
 
         if (request != null) {
             String ipAddress = getClientIpAddress(request);
-            log.setIpAddress(ipAddress);
+            log.setIpAddress(truncate(ipAddress, IP_LENGTH));
         }
 
-        systemLogRepository.save(log);
+        systemLogWriter.submit(log);
     }
 
     public void logInfo(String module, String action, String message, HttpServletRequest request) {
@@ -47,6 +58,10 @@ public class SystemLogService {
         log("ERROR", module, action, message, request);
     }
 
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
     private String getClientIpAddress(HttpServletRequest request) {
         String xForwardedFor = request.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
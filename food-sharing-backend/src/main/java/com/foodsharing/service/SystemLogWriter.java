@@ -0,0 +1,243 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.SystemLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 系统日志异步写入：请求线程只把日志放进有界无锁队列，
+ * 后台线程攒满一批（batch-size）或每隔 flush-ms 用 JDBC 批量插入 system_logs。
+ * 队列满时丢弃新的 INFO 日志，WARN/ERROR 另有 1/10 容量的余量，丢弃数按级别计数；
+ * 批量写入失败时逐条写入，只丢弃本身无法写入的行；整批都写不进（数据库不可用）时
+ * 等一个周期重试，MAX_ATTEMPTS 次后丢弃；停机时写出队列中剩余的日志
+ */
+@Component
+public class SystemLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemLogWriter.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+    // 逐条写入时开头连续失败这么多条、没有一条成功，按数据库不可用处理
+    private static final int FALLBACK_PROBE_ROWS = 3;
+
+    private static final String INSERT = "INSERT INTO system_logs " +
+            "(level, module, action, message, user_id, username, ip_address, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int reservedCapacity;
+    private final int batchSize;
+    private final long flushNanos;
+
+    private final Queue<SystemLog> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() 需要遍历，容量用单独的计数判断
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final Map<String, LongAdder> dropped = new ConcurrentHashMap<>();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public SystemLogWriter(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.system-log.queue-capacity:10000}") int capacity,
+                           @Value("${app.system-log.batch-size:500}") int batchSize,
+                           @Value("${app.system-log.flush-ms:200}") long flushMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+        this.reservedCapacity = capacity + capacity / 10;
+        this.batchSize = batchSize;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        for (String level : List.of("INFO", "WARN", "ERROR")) {
+            dropped.put(level, new LongAdder());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "system-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 提交一条日志，队列已满时丢弃并返回 false
+     */
+    public boolean submit(SystemLog log) {
+        int limit = "INFO".equals(log.getLevel()) ? capacity : reservedCapacity;
+        int current;
+        do {
+            current = size.get();
+            if (current >= limit || !running) {
+                dropped.computeIfAbsent(log.getLevel(), l -> new LongAdder()).increment();
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        queue.offer(log);
+        accepted.increment();
+        // 刚好攒满一批时唤醒写入线程，不必等到下个周期
+        if (current + 1 == batchSize) {
+            LockSupport.unpark(worker);
+        }
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", size.get());
+        stats.put("capacity", capacity);
+        stats.put("accepted", accepted.sum());
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        Map<String, Long> droppedByLevel = new LinkedHashMap<>();
+        dropped.forEach((level, count) -> droppedByLevel.put(level, count.sum()));
+        stats.put("dropped", droppedByLevel);
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    /**
+     * 停止接收新日志，等待写入线程写出剩余日志
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker == null) {
+            return;
+        }
+        LockSupport.unpark(worker);
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            logger.warn("System log writer did not finish within {} ms, {} logs not written",
+                    SHUTDOWN_TIMEOUT_MS, size.get());
+        }
+    }
+
+    private void run() {
+        List<SystemLog> batch = new ArrayList<>(batchSize);
+        int attempts = 0;
+        long deadline = System.nanoTime() + flushNanos;
+        while (running || !batch.isEmpty() || size.get() > 0) {
+            long wait = deadline - System.nanoTime();
+            // 失败的批次等一个周期再重试
+            if (running && wait > 0 && (attempts > 0 || (batch.isEmpty() && size.get() < batchSize))) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            deadline = System.nanoTime() + flushNanos;
+            drain(batch);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            boolean ok;
+            try {
+                ok = write(batch);
+            } catch (RuntimeException e) {
+                // 任何意外异常都按写入失败处理，不能让唯一的写入线程退出
+                logger.warn("Unexpected error writing {} system logs", batch.size(), e);
+                ok = false;
+            }
+            if (ok) {
+                batch.clear();
+                attempts = 0;
+            } else if (++attempts >= MAX_ATTEMPTS || !running) {
+                failed.add(batch.size());
+                logger.warn("Dropped {} system logs after {} failed attempts", batch.size(), attempts);
+                batch.clear();
+                attempts = 0;
+            }
+        }
+    }
+
+    private void drain(List<SystemLog> batch) {
+        while (batch.size() < batchSize) {
+            SystemLog log = queue.poll();
+            if (log == null) {
+                return;
+            }
+            size.decrementAndGet();
+            batch.add(log);
+        }
+    }
+
+    /**
+     * 写入一批日志，返回 false 表示数据库不可用、整批留待重试
+     */
+    private boolean write(List<SystemLog> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (SystemLog log : batch) {
+            args.add(toArgs(log));
+        }
+        try {
+            // 在事务中批量插入，失败时整批回滚，逐条重写不会重复
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, args));
+            written.add(batch.size());
+            batches.increment();
+            return true;
+        } catch (RuntimeException e) {
+            // 包括取不到连接时的 CannotCreateTransactionException（不是 DataAccessException）
+            logger.warn("Failed to write {} system logs in batch, retrying row by row", batch.size(), e);
+        }
+        return writeRows(batch, args);
+    }
+
+    /**
+     * 逐条写入，隔离出无法写入的行
+     */
+    private boolean writeRows(List<SystemLog> batch, List<Object[]> args) {
+        int succeeded = 0;
+        int rejected = 0;
+        RuntimeException lastError = null;
+        for (Object[] row : args) {
+            try {
+                jdbcTemplate.update(INSERT, row);
+                succeeded++;
+            } catch (RuntimeException e) {
+                lastError = e;
+                rejected++;
+                if (succeeded == 0 && rejected >= Math.min(FALLBACK_PROBE_ROWS, args.size())) {
+                    return false;
+                }
+            }
+        }
+        written.add(succeeded);
+        batches.increment();
+        if (rejected > 0) {
+            failed.add(rejected);
+            logger.warn("Dropped {} of {} system logs that could not be written", rejected, batch.size(), lastError);
+        }
+        return true;
+    }
+
+    private static Object[] toArgs(SystemLog log) {
+        return new Object[]{log.getLevel(), log.getModule(), log.getAction(), log.getMessage(),
+                log.getUserId(), log.getUsername(), log.getIpAddress(), Timestamp.valueOf(log.getCreatedAt())};
+    }
+}
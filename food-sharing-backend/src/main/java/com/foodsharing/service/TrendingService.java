@@ -0,0 +1,199 @@
+package com.foodsharing.service;
+
+import com.foodsharing.event.PostInteractionEvent;
+import com.foodsharing.repository.CommentRepository;
+import com.foodsharing.repository.FavoriteRepository;
+import com.foodsharing.repository.LikeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 趋势内容服务：按时间分桶累计互动权重，按半衰期衰减，定期刷新 Top-K
+ * 只有窗口期内有互动的内容参与排序，开销与近期活跃度相关而与内容总量无关
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    // 互动权重，与热度分数保持一致
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double LIKE_WEIGHT = 10.0;
+    private static final double COMMENT_WEIGHT = 5.0;
+    private static final double FAVORITE_WEIGHT = 8.0;
+
+    private final LikeRepository likeRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final CommentRepository commentRepository;
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int topK;
+    // decayFactors[age] = 0.5^(age * 分桶时长 / 半衰期)
+    private final double[] decayFactors;
+
+    private final Map<Long, EngagementWindow> windows = new ConcurrentHashMap<>();
+    private volatile List<Long> topPostIds = List.of();
+
+    public TrendingService(LikeRepository likeRepository,
+                           FavoriteRepository favoriteRepository,
+                           CommentRepository commentRepository,
+                           @Value("${app.recommendation.trending.bucket-minutes:10}") int bucketMinutes,
+                           @Value("${app.recommendation.trending.window-hours:48}") int windowHours,
+                           @Value("${app.recommendation.trending.half-life-minutes:360}") double halfLifeMinutes,
+                           @Value("${app.recommendation.trending.top-k:200}") int topK) {
+        this.likeRepository = likeRepository;
+        this.favoriteRepository = favoriteRepository;
+        this.commentRepository = commentRepository;
+        this.bucketMillis = bucketMinutes * 60_000L;
+        this.bucketCount = Math.max(1, windowHours * 60 / bucketMinutes);
+        this.topK = topK;
+        this.decayFactors = new double[bucketCount];
+        for (int age = 0; age < bucketCount; age++) {
+            decayFactors[age] = Math.pow(0.5, age * bucketMinutes / halfLifeMinutes);
+        }
+    }
+
+    /**
+     * 当前趋势内容ID（按衰减后分数降序）
+     */
+    public List<Long> getTrendingPostIds(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<Long> snapshot = topPostIds;
+        return snapshot.size() <= limit ? snapshot : snapshot.subList(0, limit);
+    }
+
+    @EventListener
+    public void onInteraction(PostInteractionEvent event) {
+        record(event.getPostId(), weightOf(event.getType()) * event.getDelta(), System.currentTimeMillis());
+    }
+
+    /**
+     * 启动时用窗口期内的点赞、收藏、评论记录预热（浏览没有明细记录，不参与预热）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(bucketCount * bucketMillis / 60_000L);
+        ZoneId zone = ZoneId.systemDefault();
+        int count = 0;
+        count += replay(likeRepository.findPostActivitySince(since), LIKE_WEIGHT, zone);
+        count += replay(favoriteRepository.findPostActivitySince(since), FAVORITE_WEIGHT, zone);
+        count += replay(commentRepository.findPostActivitySince(since), COMMENT_WEIGHT, zone);
+        refresh();
+        logger.info("Trending warm-up replayed {} interactions across {} posts", count, windows.size());
+    }
+
+    /**
+     * 定期淘汰过期窗口并重新计算 Top-K
+     */
+    @Scheduled(fixedDelayString = "${app.recommendation.trending.refresh-ms:30000}")
+    public void refresh() {
+        long nowBucket = System.currentTimeMillis() / bucketMillis;
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(topK + 1, Map.Entry.comparingByValue());
+
+        for (Map.Entry<Long, EngagementWindow> entry : windows.entrySet()) {
+            EngagementWindow window = entry.getValue();
+            if (window.isExpired(nowBucket)) {
+                // 在映射的锁内复查，record 刚写入的窗口不会被移除
+                windows.computeIfPresent(entry.getKey(), (id, w) -> w.isExpired(nowBucket) ? null : w);
+                continue;
+            }
+            double score = window.score(nowBucket);
+            if (score <= 0) {
+                continue;
+            }
+            if (heap.size() < topK) {
+                heap.offer(new AbstractMap.SimpleEntry<>(entry.getKey(), score));
+            } else if (score > heap.peek().getValue()) {
+                heap.poll();
+                heap.offer(new AbstractMap.SimpleEntry<>(entry.getKey(), score));
+            }
+        }
+
+        Long[] ranked = new Long[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll().getKey();
+        }
+        topPostIds = List.of(ranked);
+    }
+
+    private int replay(List<Object[]> rows, double weight, ZoneId zone) {
+        for (Object[] row : rows) {
+            long millis = ((LocalDateTime) row[1]).atZone(zone).toInstant().toEpochMilli();
+            record((Long) row[0], weight, millis);
+        }
+        return rows.size();
+    }
+
+    private void record(Long postId, double weight, long timestampMillis) {
+        if (postId == null || weight == 0) {
+            return;
+        }
+        long bucket = timestampMillis / bucketMillis;
+        windows.computeIfAbsent(postId, id -> new EngagementWindow(bucketCount)).add(bucket, weight);
+    }
+
+    private double weightOf(PostInteractionEvent.Type type) {
+        return switch (type) {
+            case VIEW -> VIEW_WEIGHT;
+            case LIKE -> LIKE_WEIGHT;
+            case COMMENT -> COMMENT_WEIGHT;
+            case FAVORITE -> FAVORITE_WEIGHT;
+        };
+    }
+
+    /**
+     * 单个内容的滑动窗口：环形数组，每个槽位记录所属的分桶编号，过期槽位在写入时复用
+     */
+    private class EngagementWindow {
+        private final double[] weights;
+        private final long[] bucketIds;
+        private long lastBucket;
+
+        EngagementWindow(int size) {
+            this.weights = new double[size];
+            this.bucketIds = new long[size];
+            Arrays.fill(bucketIds, -1);
+        }
+
+        synchronized void add(long bucket, double weight) {
+            int slot = (int) (bucket % weights.length);
+            if (bucketIds[slot] != bucket) {
+                if (bucketIds[slot] > bucket) {
+                    return; // 早于窗口范围的记录
+                }
+                bucketIds[slot] = bucket;
+                weights[slot] = 0;
+            }
+            weights[slot] += weight;
+            lastBucket = Math.max(lastBucket, bucket);
+        }
+
+        synchronized double score(long nowBucket) {
+            double score = 0;
+            for (int i = 0; i < weights.length; i++) {
+                long age = nowBucket - bucketIds[i];
+                if (bucketIds[i] >= 0 && age >= 0 && age < decayFactors.length) {
+                    score += weights[i] * decayFactors[(int) age];
+                }
+            }
+            return score;
+        }
+
+        synchronized boolean isExpired(long nowBucket) {
+            return nowBucket - lastBucket >= weights.length;
+        }
+    }
+}
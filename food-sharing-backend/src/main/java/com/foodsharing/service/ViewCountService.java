@@ -0,0 +1,144 @@
+package com.foodsharing.service;
+
+import com.foodsharing.entity.Post;
+import com.foodsharing.repository.PostHotScoreRepository;
+import com.foodsharing.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 浏览量计数：浏览时只在内存中累加，定期把增量批量写入 posts 和 post_hot_scores，
+ * 相同增量的内容合并为一条 UPDATE，停机时写出剩余增量
+ */
+@Service
+public class ViewCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final PostHotScoreRepository postHotScoreRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counter> pending = new ConcurrentHashMap<>();
+    // 上个周期移出的空闲计数器，移出时正在进行的 increment 可能还记在上面，下个周期补上
+    private final List<Counter> retired = new ArrayList<>();
+    // 正在写入数据库的增量，写入完成前读取时也要计入
+    private volatile Map<Long, Long> flushing = Map.of();
+
+    public ViewCountService(PostRepository postRepository,
+                            PostHotScoreRepository postHotScoreRepository,
+                            TransactionTemplate transactionTemplate) {
+        this.postRepository = postRepository;
+        this.postHotScoreRepository = postHotScoreRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void increment(Long postId) {
+        while (true) {
+            Counter counter = pending.get(postId);
+            if (counter == null) {
+                counter = pending.computeIfAbsent(postId, Counter::new);
+            }
+            counter.increment();
+            if (!counter.retired) {
+                return;
+            }
+            // 计数器已被 flush 移出，撤销这次累加，换到新的计数器上重试
+            counter.decrement();
+            pending.remove(postId, counter);
+        }
+    }
+
+    /**
+     * 尚未写入数据库的浏览增量
+     */
+    public long getPending(Long postId) {
+        Counter adder = pending.get(postId);
+        return (adder == null ? 0 : adder.sum()) + flushing.getOrDefault(postId, 0L);
+    }
+
+    /**
+     * 当前浏览量：数据库中的值加上未写入的增量
+     */
+    public long getViewCount(Post post) {
+        long persisted = post.getViewCount() == null ? 0 : post.getViewCount();
+        return persisted + getPending(post.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.view-count.flush-ms:5000}")
+    @PreDestroy
+    public synchronized void flush() {
+        if (pending.isEmpty() && retired.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> deltas = new ConcurrentHashMap<>();
+        flushing = deltas;
+        // 撤销的累加已在一个周期内完成，剩下的是移出前没看到标记、确实要计入的浏览
+        for (Counter counter : retired) {
+            long late = counter.sumThenReset();
+            if (late > 0) {
+                deltas.merge(counter.postId, late, Long::sum);
+            }
+        }
+        retired.clear();
+        for (Counter counter : pending.values()) {
+            long delta = counter.sumThenReset();
+            if (delta > 0) {
+                deltas.merge(counter.postId, delta, Long::sum);
+            } else {
+                // 一个周期内没有浏览的条目标记后移出，避免常驻；
+                // 看到标记的 increment 会自行撤销并重试，没看到的留到下个周期计入
+                counter.retired = true;
+                pending.remove(counter.postId, counter);
+                retired.add(counter);
+            }
+        }
+        if (deltas.isEmpty()) {
+            flushing = Map.of();
+            return;
+        }
+
+        // 按增量分组，同一增量的内容用 IN 一次更新
+        Map<Long, List<Long>> byDelta = new HashMap<>();
+        deltas.forEach((postId, delta) -> byDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(postId));
+        try {
+            transactionTemplate.executeWithoutResult(status -> byDelta.forEach((delta, postIds) -> {
+                for (int i = 0; i < postIds.size(); i += BATCH_SIZE) {
+                    List<Long> batch = postIds.subList(i, Math.min(postIds.size(), i + BATCH_SIZE));
+                    postRepository.incrementViewCounts(batch, delta);
+                    postHotScoreRepository.incrementViews(batch, delta);
+                }
+            }));
+            // 提交后增量已在数据库中，立即清除，避免读取时重复计入
+            flushing = Map.of();
+        } catch (RuntimeException e) {
+            // 写入失败时先把增量放回再清除 flushing，期间读取不会漏计
+            deltas.forEach((postId, delta) -> pending.computeIfAbsent(postId, Counter::new).add(delta));
+            flushing = Map.of();
+            logger.warn("Failed to flush view counts for {} posts, will retry", deltas.size(), e);
+        }
+    }
+
+    /**
+     * 单个内容的浏览计数，retired 表示已被 flush 移出映射
+     */
+    private static final class Counter extends LongAdder {
+
+        final Long postId;
+        volatile boolean retired;
+
+        Counter(Long postId) {
+            this.postId = postId;
+        }
+    }
+}
@@ -34,11 +34,19 @@ export function rejectPost(id, reason) {
   return api.put(`/admin/posts/${id}/reject`, { reason })
 }
 
+export function deletePost(id) {
+  return api.delete(`/admin/posts/${id}`)
+}
+
 // 数据统计
 export function getStatistics() {
   return api.get('/admin/statistics/overview')
 }
 
+export function getRecommendationCacheStats() {
+  return api.get('/admin/statistics/recommendation-cache')
+}
+
 // 系统配置
 export function getConfigs() {
   return api.get('/admin/configs')
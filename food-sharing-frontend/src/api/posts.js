@@ -14,3 +14,8 @@ export const getPosts = (params) => {
 export const getPostDetail = (id) => {
   return api.get(`/posts/${id}`)
 }
+
+// 获取相似内容
+export const getSimilarPosts = (id, limit = 10) => {
+  return api.get(`/posts/${id}/similar`, { params: { limit } })
+}
@@ -6,8 +6,8 @@ export const getPersonalizedRecommendations = (limit = 10) => {
 }
 
 // 基于位置的推荐
-export const getLocationBasedRecommendations = (lat, lng, limit = 10) => {
-  return api.get('/recommendations/location-based', { params: { lat, lng, limit } })
+export const getLocationBasedRecommendations = (lat, lng, limit = 10, radiusKm, page = 0) => {
+  return api.get('/recommendations/location-based', { params: { lat, lng, limit, radiusKm, page } })
 }
 
 // 热门内容
@@ -25,3 +25,7 @@ export const getLatestPosts = (limit = 10) => {
   return api.get('/recommendations/latest', { params: { limit } })
 }
 
+// 趋势内容（按时间衰减）
+export const getTrendingPosts = (limit = 10) => {
+  return api.get('/recommendations/trending', { params: { limit } })
+}
@@ -0,0 +1,11 @@
+import api from './request.js'
+
+// 全文检索内容（按相关度排序，带高亮片段）
+export const searchPosts = (q, page = 0, size = 10) => {
+  return api.get('/search/posts', { params: { q, page, size } })
+}
+
+// 搜索联想（内容标题、标签、分类、商家）
+export const getSearchSuggestions = (prefix, limit = 10) => {
+  return api.get('/search/suggest', { params: { prefix, limit } })
+}
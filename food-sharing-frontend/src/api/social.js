@@ -5,6 +5,15 @@ export const toggleLike = (postId) => {
   return api.post(`/likes/posts/${postId}`)
 }
 
+// 点赞/取消点赞（幂等，重复请求结果相同）
+export const likePost = (postId) => {
+  return api.put(`/likes/posts/${postId}`)
+}
+
+export const unlikePost = (postId) => {
+  return api.delete(`/likes/posts/${postId}`)
+}
+
 export const getLikeStatus = (postId) => {
   return api.get(`/likes/posts/${postId}`)
 }
@@ -18,6 +27,11 @@ export const getComments = (postId, params) => {
   return api.get(`/comments/posts/${postId}`, { params })
 }
 
+// 评论的更多回复（cursor 为列表返回的 moreRepliesCursor 或上一页的 nextCursor）
+export const getCommentReplies = (commentId, params) => {
+  return api.get(`/comments/${commentId}/replies`, { params })
+}
+
 export const deleteComment = (commentId) => {
   return api.delete(`/comments/${commentId}`)
 }
@@ -27,10 +41,24 @@ export const toggleFavorite = (postId) => {
   return api.post(`/favorites/posts/${postId}`)
 }
 
+// 收藏/取消收藏（幂等）
+export const favoritePost = (postId) => {
+  return api.put(`/favorites/posts/${postId}`)
+}
+
+export const unfavoritePost = (postId) => {
+  return api.delete(`/favorites/posts/${postId}`)
+}
+
 export const getFavoriteStatus = (postId) => {
   return api.get(`/favorites/posts/${postId}`)
 }
 
+// 批量获取内容的点赞/收藏状态和互动计数
+export const getInteractionStatus = (postIds) => {
+  return api.get('/interactions/posts', { params: { ids: postIds.join(',') } })
+}
+
 export const getMyFavorites = (params) => {
   return api.get('/favorites/my', { params })
 }
@@ -40,6 +68,15 @@ export const toggleFollow = (userId) => {
   return api.post(`/follows/users/${userId}`)
 }
 
+// 关注/取消关注（幂等）
+export const followUser = (userId) => {
+  return api.put(`/follows/users/${userId}`)
+}
+
+export const unfollowUser = (userId) => {
+  return api.delete(`/follows/users/${userId}`)
+}
+
 export const getFollowStatus = (userId) => {
   return api.get(`/follows/users/${userId}`)
 }
@@ -51,3 +88,8 @@ export const getFollowers = (params) => {
 export const getFollowing = (params) => {
   return api.get('/follows/following', { params })
 }
+
+// 获取关注动态（cursor 为上一页返回的 nextCursor）
+export const getFeed = (cursor, size = 10) => {
+  return api.get('/feed', { params: { cursor, size } })
+}